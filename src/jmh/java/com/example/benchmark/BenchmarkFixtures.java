@@ -0,0 +1,57 @@
+package com.example.benchmark;
+
+import com.example.domain.User;
+import com.example.dto.response.ResponseListDTO;
+import com.example.dto.user.UserDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Sample payloads and an {@link ObjectMapper} configured like the one Spring Boot gives the application.
+ */
+final class BenchmarkFixtures {
+
+    static final String USER_JSON = """
+            {"email":"test@example.com","firstName":"John","lastName":"Doe","birthDate":"2003-04-04",\
+            "address":"123 Main St","phoneNumber":"1234567890"}""";
+
+    private BenchmarkFixtures() {
+    }
+
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    static User user(long id) {
+        User user = new User()
+                .setEmail("user" + id + "@example.com")
+                .setFirstName("John")
+                .setLastName("Doe")
+                .setBirthDate(new java.sql.Date(1049414400000L)) // 2003-04-04, as loaded by Hibernate
+                .setAddress("123 Main St")
+                .setPhoneNumber("1234567890");
+        user.setId(id);
+        return user;
+    }
+
+    static ResponseListDTO<List<UserDTO>> searchPage(int size, Function<User, UserDTO> toDTO) {
+        List<UserDTO> userDTOs = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            userDTOs.add(toDTO.apply(user(i + 1)));
+        }
+        return ResponseListDTO.<List<UserDTO>>builder()
+                .currentPage(0L)
+                .size(size)
+                .data(userDTOs)
+                .totalElements(1000L)
+                .totalPages(1000L / size)
+                .build();
+    }
+}
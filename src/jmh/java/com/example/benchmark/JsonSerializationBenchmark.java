@@ -0,0 +1,63 @@
+package com.example.benchmark;
+
+import com.example.dto.response.ResponseListDTO;
+import com.example.dto.user.UserDTO;
+import com.example.mapper.user.imp.UserMapper;
+import com.example.util.json.UserJsonModule;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@code /users/search} page serialized by the stock bean serializers and by {@link UserJsonModule}.
+ * Setup fails if the two outputs differ.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"5", "100"})
+    public int size;
+
+    private ObjectWriter stockWriter;
+
+    private ObjectWriter handWrittenWriter;
+
+    private ResponseListDTO<List<UserDTO>> response;
+
+    @Setup
+    public void setUp() throws IOException {
+        TypeFactory typeFactory = TypeFactory.defaultInstance();
+        JavaType searchPage = typeFactory.constructParametricType(ResponseListDTO.class,
+                typeFactory.constructCollectionType(List.class, UserDTO.class));
+        ObjectMapper stock = BenchmarkFixtures.objectMapper();
+        stockWriter = stock.writerFor(searchPage);
+        handWrittenWriter = stock.copy().registerModule(new UserJsonModule()).writerFor(searchPage);
+        response = BenchmarkFixtures.searchPage(size, new UserMapper()::toDTO);
+
+        if (!Arrays.equals(stockWriter.writeValueAsBytes(response), handWrittenWriter.writeValueAsBytes(response))) {
+            throw new IllegalStateException("Hand-written serializers differ from the bean serializers");
+        }
+    }
+
+    @Benchmark
+    public byte[] stock() throws IOException {
+        return stockWriter.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] handWritten() throws IOException {
+        return handWrittenWriter.writeValueAsBytes(response);
+    }
+}
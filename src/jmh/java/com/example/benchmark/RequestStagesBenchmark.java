@@ -0,0 +1,133 @@
+package com.example.benchmark;
+
+import com.example.domain.User;
+import com.example.dto.response.ResponseListDTO;
+import com.example.dto.user.UserDTO;
+import com.example.mapper.user.imp.UserMapper;
+import com.example.util.handler.AdultAgeCutoff;
+import com.example.util.handler.AdultAgeValidator;
+import com.example.util.handler.UserDTOValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Each stage of a user request measured on its own, as a baseline for later optimizations.
+ * Run with {@code -prof gc} (the profile default) for the allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestStagesBenchmark {
+
+    private ObjectReader userReader;
+
+    private byte[] userJson;
+
+    private ValidatorFactory validatorFactory;
+
+    private Validator validator;
+
+    private AdultAgeValidator adultAgeValidator;
+
+    private UserDTOValidator userDTOValidator;
+
+    private UserMapper userMapper;
+
+    private UserDTO userDTO;
+
+    private User user;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = BenchmarkFixtures.objectMapper();
+        userReader = objectMapper.readerWithView(UserDTO.Input.class).forType(UserDTO.class);
+        userJson = BenchmarkFixtures.USER_JSON.getBytes(StandardCharsets.UTF_8);
+
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        adultAgeValidator = new AdultAgeValidator();
+        Clock clock = Clock.systemDefaultZone();
+        userDTOValidator = new UserDTOValidator(validator, new AdultAgeCutoff(18, clock), clock);
+
+        userMapper = new UserMapper();
+
+        userDTO = userReader.readValue(userJson);
+        user = BenchmarkFixtures.user(1L);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public UserDTO deserializeUserDTO() throws IOException {
+        return userReader.readValue(userJson);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserDTO>> validateUserDTO() {
+        return validator.validate(userDTO);
+    }
+
+    @Benchmark
+    public List<String> validateUserDTOPrecompiled() {
+        return userDTOValidator.validate(userDTO);
+    }
+
+    @Benchmark
+    public boolean validateAdultAge() {
+        return adultAgeValidator.isValid(userDTO.getBirthDate(), null);
+    }
+
+    @Benchmark
+    public User mapToModel() {
+        return userMapper.toModel(userDTO);
+    }
+
+    @Benchmark
+    public UserDTO mapToDTO() {
+        return userMapper.toDTO(user);
+    }
+
+    @Benchmark
+    public byte[] serializeSearchPage(SearchPage searchPage) throws IOException {
+        return searchPage.writer.writeValueAsBytes(searchPage.response);
+    }
+
+    @State(Scope.Benchmark)
+    public static class SearchPage {
+
+        @Param({"5", "100"})
+        public int size;
+
+        private ObjectWriter writer;
+
+        private ResponseListDTO<List<UserDTO>> response;
+
+        @Setup
+        public void setUp() {
+            TypeFactory typeFactory = TypeFactory.defaultInstance();
+            writer = BenchmarkFixtures.objectMapper().writerFor(typeFactory.constructParametricType(ResponseListDTO.class,
+                    typeFactory.constructCollectionType(List.class, UserDTO.class)));
+            response = BenchmarkFixtures.searchPage(size, new UserMapper()::toDTO);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.benchmark;
+
+import com.example.domain.User;
+import com.example.dto.user.UserDTO;
+import com.example.mapper.user.imp.UserMapper;
+import org.modelmapper.Conditions;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link UserMapper} against the ModelMapper configuration it replaced. Run with {@code -prof gc} for allocation per mapping.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMapperBenchmark {
+
+    private ModelMapper modelMapper;
+
+    private UserMapper userMapper;
+
+    private User user;
+
+    private UserDTO userDTO;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration()
+                .setMatchingStrategy(MatchingStrategies.STRICT)
+                .setPropertyCondition(Conditions.isNotNull())
+                .setSkipNullEnabled(true);
+        userMapper = new UserMapper();
+
+        user = new User()
+                .setEmail("test@example.com")
+                .setFirstName("John")
+                .setLastName("Doe")
+                .setBirthDate(new java.sql.Date(1049414400000L)) // 2003-04-04
+                .setAddress("123 Main St")
+                .setPhoneNumber("1234567890");
+        user.setId(1L);
+        userDTO = userMapper.toDTO(user);
+    }
+
+    @Benchmark
+    public UserDTO modelMapperToDTO() {
+        return modelMapper.map(user, UserDTO.class);
+    }
+
+    @Benchmark
+    public UserDTO userMapperToDTO() {
+        return userMapper.toDTO(user);
+    }
+
+    @Benchmark
+    public User modelMapperToModel() {
+        return modelMapper.map(userDTO, User.class);
+    }
+
+    @Benchmark
+    public User userMapperToModel() {
+        return userMapper.toModel(userDTO);
+    }
+}
@@ -1,24 +1,29 @@
 package com.example.config;
 
-import org.modelmapper.Conditions;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.convention.MatchingStrategies;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
 
+import java.time.Clock;
 import java.util.Optional;
 
 @Configuration
 @EnableCaching
+@EnableScheduling
 @EnableJpaAuditing(auditorAwareRef = "auditorProvider")
 public class ApplicationConfig {
 
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+
     @Bean
     public AuditorAware<String> auditorProvider() {
         return () -> {
@@ -34,15 +39,4 @@ public class ApplicationConfig {
             }
         };
     }
-
-    @Bean
-    public ModelMapper modelMapper() {
-        ModelMapper modelMapper = new ModelMapper();
-        modelMapper.getConfiguration()
-                .setMatchingStrategy(MatchingStrategies.STRICT)
-                .setPropertyCondition(Conditions.isNotNull())
-                .setSkipNullEnabled(true);
-
-        return modelMapper;
-    }
 }
@@ -0,0 +1,58 @@
+package com.example.config;
+
+import com.example.util.cache.ReevictingCaffeineCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.NonNull;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+public class CacheConfig {
+
+    public static final String USERS = "users";
+
+    public static final String USER_COUNT_BY_BIRTH_DATE_RANGE = "userCountByBirthDateRange";
+
+    @Value("${spring.cache.caffeine.spec}")
+    private String defaultSpec;
+
+    @Value("${user.cache.max-size}")
+    private long usersMaxSize;
+
+    @Value("${user.cache.ttl-seconds}")
+    private long usersTtlSeconds;
+
+    @Value("${user.cache.reevict-delay-ms}")
+    private long usersReevictDelayMs;
+
+    // puts and evictions made inside a transaction only reach the caches after it commits; users are evicted twice,
+    // see ReevictingCaffeineCache
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @NonNull
+            @Override
+            protected Cache adaptCaffeineCache(@NonNull String name, @NonNull com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return USERS.equals(name)
+                        ? new ReevictingCaffeineCache(name, cache, isAllowNullValues(), usersReevictDelayMs)
+                        : super.adaptCaffeineCache(name, cache);
+            }
+        };
+        cacheManager.setCacheSpecification(defaultSpec);
+        cacheManager.setCacheNames(List.of(USER_COUNT_BY_BIRTH_DATE_RANGE));
+        cacheManager.registerCustomCache(USERS, Caffeine.newBuilder()
+                .maximumSize(usersMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(usersTtlSeconds))
+                .recordStats()
+                .build());
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.config;
+
+import com.example.util.json.UserJsonModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * JSON, CBOR ({@code application/cbor}) and Smile ({@code application/x-jackson-smile}) are negotiated from the
+ * {@code Accept} and {@code Content-Type} headers. The binary mappers come from the builder Spring Boot configures
+ * the JSON mapper with, so modules, features, {@code @JsonView} and validation behave the same in every format.
+ */
+@Configuration
+public class JacksonConfig {
+
+    // registered with the auto-configured ObjectMapper, like every Module bean
+    @Bean
+    public UserJsonModule userJsonModule() {
+        return new UserJsonModule();
+    }
+
+    // replaces the converter Spring MVC would add with a plain Jackson2ObjectMapperBuilder.cbor() mapper
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
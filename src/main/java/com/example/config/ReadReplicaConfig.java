@@ -0,0 +1,98 @@
+package com.example.config;
+
+import com.example.util.datasource.ReadReplicaRoutingDataSource;
+import com.example.util.datasource.ReadReplicas;
+import com.example.util.datasource.Replica;
+import com.example.util.datasource.ReplicaSelection;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.AuditorAware;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single pooled datasource with {@link ReadReplicaRoutingDataSource} when replica URLs are configured.
+ * The primary comes from {@code spring.datasource.*}; every pool takes the {@code spring.datasource.hikari.*}
+ * settings.
+ */
+@Configuration
+@ConditionalOnExpression("'${user.datasource.replica.urls:}' != ''")
+public class ReadReplicaConfig {
+
+    @Bean
+    public ReadReplicas readReplicas(DataSourceProperties properties,
+                                     Environment environment,
+                                     AuditorAware<String> auditorProvider,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${user.datasource.replica.urls}") List<String> replicaUrls,
+                                     @Value("${user.datasource.replica.username}") String replicaUsername,
+                                     @Value("${user.datasource.replica.password}") String replicaPassword,
+                                     @Value("${user.datasource.replica.selection}") String selection,
+                                     @Value("${user.datasource.replica.read-your-writes-ms}") long readYourWritesMs,
+                                     @Value("${user.datasource.replica.health-check-interval-ms}") long healthCheckIntervalMs) {
+        // a session held across transactions would keep a replica connection for the writes after a read
+        if (environment.getProperty("spring.jpa.open-in-view", Boolean.class, true)) {
+            throw new IllegalStateException("Read replicas need spring.jpa.open-in-view=false");
+        }
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        bindHikariSettings(environment, primary);
+        primary.setPoolName("primary");
+
+        List<Replica> replicas = new ArrayList<>(replicaUrls.size());
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(replicaUrls.get(i).trim())
+                    .username(replicaUsername)
+                    .password(replicaPassword)
+                    .build();
+            bindHikariSettings(environment, replica);
+            replica.setPoolName("replica-" + i);
+            replica.setReadOnly(true);
+            // Boot only binds pool metrics for the pool it finds behind the DataSource bean, the primary
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(new Replica(replica.getPoolName(), replica));
+        }
+
+        ReadReplicas readReplicas = new ReadReplicas(primary, replicas, ReplicaSelection.of(selection),
+                Duration.ofMillis(readYourWritesMs), auditorProvider);
+        readReplicas.startHealthChecks(Duration.ofMillis(healthCheckIntervalMs));
+        return readReplicas;
+    }
+
+    @Bean
+    public DataSource dataSource(ReadReplicas readReplicas) {
+        return new ReadReplicaRoutingDataSource(readReplicas);
+    }
+
+    @Bean
+    public HealthIndicator replicasHealthIndicator(ReadReplicas readReplicas) {
+        return () -> {
+            Health.Builder health = Health.up();
+            for (Replica replica : readReplicas.getReplicas()) {
+                health.withDetail(replica.getName(), replica.isHealthy() ? "UP" : "DOWN");
+            }
+            // reads fall back to the primary, so a lost replica degrades capacity but not availability
+            return health.build();
+        };
+    }
+
+    private static void bindHikariSettings(Environment environment, HikariDataSource dataSource) {
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+    }
+}
@@ -1,46 +1,79 @@
 package com.example.config;
 
+import com.example.util.security.CachingJwtAuthenticationProvider;
+import com.example.util.security.RefreshingJwkSource;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
 
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.stream.Stream;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    // allowing requests from all domains; built once instead of per request
+    private static final CorsConfiguration CORS_CONFIGURATION = corsConfiguration();
+
     @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}")
     private String issUrl;
+
+    @Value("${jwt.cache.max-size}")
+    private long jwtCacheMaxSize;
+
+    @Value("${jwt.jwk-set.refresh-interval-ms}")
+    private long jwkSetRefreshIntervalMs;
+
+    @Value("${jwt.jwk-set.min-refresh-interval-ms}")
+    private long jwkSetMinRefreshIntervalMs;
+
+    @Value("${jwt.jwk-set.connect-timeout-ms}")
+    private int jwkSetConnectTimeoutMs;
+
+    @Value("${jwt.jwk-set.read-timeout-ms}")
+    private int jwkSetReadTimeoutMs;
+
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity,
+                                                   AuthenticationManager jwtAuthenticationManager) throws Exception {
 
 
         return httpSecurity
                 .csrf(AbstractHttpConfigurer::disable)
-                // allowing requests from all domains
-                .cors(cors -> cors.configurationSource(request -> {
-                    var corsConfiguration = new CorsConfiguration();
-                    corsConfiguration.setAllowedOriginPatterns(List.of("*"));
-                    corsConfiguration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-                    corsConfiguration.setAllowedHeaders(List.of("*"));
-                    corsConfiguration.setAllowCredentials(true);
-                    return corsConfiguration;
-                }))
+                .cors(cors -> cors.configurationSource(request -> CORS_CONFIGURATION))
                 .authorizeHttpRequests(request -> request
                         .requestMatchers("/auth/v1/*").permitAll()
+                        // probes carry no token
+                        .requestMatchers("/actuator/health").permitAll()
+                        // the scraper signs in as the prometheus service account of the realm
+                        .requestMatchers("/actuator/prometheus").hasRole("METRICS")
+                        // raw query text, and clearing resets everyone's baseline
+                        .requestMatchers("/actuator/hibernate").hasRole("ADMIN")
                         .requestMatchers("/swagger-ui/**", "/swagger-resources/*", "/v3/api-docs/**", "/h2-console/**")
                         .permitAll()
                         // for working with keycloak auth
@@ -51,11 +84,39 @@ public class SecurityConfig {
                 )
 
 
-                .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwtConfigurer -> jwtConfigurer.jwkSetUri(issUrl)))
+                .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwtConfigurer -> jwtConfigurer.authenticationManager(jwtAuthenticationManager)))
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .build();
     }
 
+    // fetches the signing keys at startup and keeps them warm so requests never wait on Keycloak
+    @Bean
+    public RefreshingJwkSource jwkSource() throws MalformedURLException {
+        RefreshingJwkSource jwkSource = new RefreshingJwkSource(new URL(issUrl),
+                new DefaultResourceRetriever(jwkSetConnectTimeoutMs, jwkSetReadTimeoutMs),
+                jwkSetMinRefreshIntervalMs);
+        jwkSource.start(jwkSetRefreshIntervalMs);
+        return jwkSource;
+    }
+
+    @Bean
+    public JwtDecoder jwtDecoder(RefreshingJwkSource jwkSource) {
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+        // claims are validated by NimbusJwtDecoder's own validators
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        return new NimbusJwtDecoder(jwtProcessor);
+    }
+
+    @Bean
+    public AuthenticationManager jwtAuthenticationManager(JwtDecoder jwtDecoder,
+                                                          JwtAuthenticationConverter jwtAuthenticationConverter) {
+        JwtAuthenticationProvider jwtAuthenticationProvider = new JwtAuthenticationProvider(jwtDecoder);
+        jwtAuthenticationProvider.setJwtAuthenticationConverter(jwtAuthenticationConverter);
+        return new ProviderManager(new CachingJwtAuthenticationProvider(jwtAuthenticationProvider, jwtCacheMaxSize));
+    }
+
     @Bean
     public JwtAuthenticationConverter jwtAuthenticationConverter() {
         JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
@@ -63,17 +124,29 @@ public class SecurityConfig {
         converter.setPrincipalClaimName("preferred_username");
 
         converter.setJwtGrantedAuthoritiesConverter(jwt -> {
-            Collection<GrantedAuthority> authorities = jwtGrantedAuthoritiesConverter.convert(jwt);
-            List<String> roles = (List<String>) jwt.getClaimAsMap("realm_access").get("roles");
-
-            return Stream.concat(authorities.stream(),
-                            roles.stream()
-                                    .filter(role -> role.startsWith("ROLE_"))
-                                    .map(SimpleGrantedAuthority::new)
-                                    .map(GrantedAuthority.class::cast))
-                    .toList();
+            Collection<GrantedAuthority> scopes = jwtGrantedAuthoritiesConverter.convert(jwt);
+            Map<String, Object> realmAccess = jwt.getClaimAsMap("realm_access");
+            List<String> roles = realmAccess == null ? List.of() : (List<String>) realmAccess.get("roles");
+
+            List<GrantedAuthority> authorities = new ArrayList<>(scopes.size() + roles.size());
+            authorities.addAll(scopes);
+            for (String role : roles) {
+                if (role.startsWith("ROLE_")) {
+                    authorities.add(new SimpleGrantedAuthority(role));
+                }
+            }
+            return authorities;
         });
 
         return converter;
     }
+
+    private static CorsConfiguration corsConfiguration() {
+        var corsConfiguration = new CorsConfiguration();
+        corsConfiguration.setAllowedOriginPatterns(List.of("*"));
+        corsConfiguration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        corsConfiguration.setAllowedHeaders(List.of("*"));
+        corsConfiguration.setAllowCredentials(true);
+        return corsConfiguration;
+    }
 }
@@ -0,0 +1,44 @@
+package com.example.config;
+
+import com.example.util.jdbc.SlowQueryLog;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+@Configuration
+public class SlowQueryLogConfig {
+
+    // wraps the pool itself, so every connection handed out, to Hibernate or JdbcTemplate, is timed
+    @Bean
+    public static BeanPostProcessor slowQueryLogPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource)
+                        || !environment.getProperty("sql.slow-query.enabled", Boolean.class, true)) {
+                    return bean;
+                }
+                SlowQueryLog slowQueryLog = new SlowQueryLog(
+                        environment.getRequiredProperty("sql.slow-query.threshold-ms", Long.class),
+                        environment.getRequiredProperty("sql.slow-query.sample-rate", Double.class));
+                return new DelegatingDataSource(dataSource) {
+                    @Override
+                    public Connection getConnection() throws SQLException {
+                        return slowQueryLog.wrap(super.getConnection());
+                    }
+
+                    @Override
+                    public Connection getConnection(String username, String password) throws SQLException {
+                        return slowQueryLog.wrap(super.getConnection(username, password));
+                    }
+                };
+            }
+        };
+    }
+}
@@ -3,23 +3,53 @@ package com.example.controller;
 import com.example.domain.User;
 import com.example.dto.response.ResponseDTO;
 import com.example.dto.response.ResponseListDTO;
+import com.example.dto.user.BatchRowDTO;
+import com.example.dto.user.UserBatchResultDTO;
+import com.example.dto.user.UserDeleteResultDTO;
 import com.example.dto.user.UserDTO;
+import com.example.dto.user.UserImportJobDTO;
+import com.example.exception.user.UserBatchTooLargeException;
 import com.example.mapper.user.IUserMapper;
+import com.example.repository.projection.UserRangeVersion;
+import com.example.repository.projection.UserRow;
+import com.example.service.user.BatchCreateResult;
+import com.example.service.user.BatchDeleteResult;
+import com.example.service.user.IUserImportService;
 import com.example.service.user.IUserService;
+import com.example.service.user.UserImportJob;
+import com.example.util.etag.UserETags;
+import com.example.util.handler.UserDTOValidator;
+import com.example.util.export.ExportFormat;
+import com.example.util.export.UserExportWriter;
+import com.example.util.imports.ImportFormat;
+import com.example.util.pagination.UserCursor;
 import com.fasterxml.jackson.annotation.JsonView;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import java.util.Date;
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.io.UncheckedIOException;
+import java.util.*;
 
 @RestController
 @RequestMapping("/users")
@@ -30,8 +60,23 @@ public class UserController {
 
     private final IUserService userService;
 
+    private final IUserImportService userImportService;
+
     private final IUserMapper userMapper;
 
+    private final UserDTOValidator userDTOValidator;
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${user.batch.max-size}")
+    private int batchMaxSize;
+
+    // @Valid user bodies skip the reflective Bean Validation path
+    @InitBinder("userDTO")
+    public void initUserDTOBinder(WebDataBinder binder) {
+        binder.setValidator(userDTOValidator);
+    }
+
     @Operation(summary = "Create a new user")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "User created"),
@@ -44,6 +89,66 @@ public class UserController {
                 .data(userMapper.toDTO(userService.create(userMapper.toModel(userDTO))))
                 .build();
     }
+
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "404", description = "Not found"),
+    })
+    @Operation(summary = "Get a user by ID")
+    @GetMapping("/{userId}")
+    public ResponseDTO<UserDTO> getUser(@Parameter(description = "ID of the user to get") @PathVariable Long userId,
+                                        WebRequest request,
+                                        HttpServletResponse response) {
+        User user = userService.getById(userId);
+        varyByFormat(response);
+        // answers If-None-Match with 304 before anything is mapped or serialized
+        if (request.checkNotModified(UserETags.of(user))) {
+            return null;
+        }
+        return ResponseDTO.<UserDTO>builder()
+                .data(userMapper.toDTO(user))
+                .build();
+    }
+
+    @Operation(summary = "Create several users at once, reporting created and rejected rows one by one")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Bad request"),
+    })
+    @PostMapping("/batch")
+    public ResponseDTO<UserBatchResultDTO> createUsers(@RequestBody @JsonView({UserDTO.Input.class}) List<UserDTO> userDTOs) {
+        // the whole batch is one transaction and every created user is echoed back
+        if (userDTOs.size() > batchMaxSize) {
+            throw new UserBatchTooLargeException(batchMaxSize);
+        }
+        List<BatchRowDTO> rejected = new ArrayList<>();
+        List<User> users = new ArrayList<>(userDTOs.size());
+        List<Integer> positions = new ArrayList<>(userDTOs.size());
+
+        for (int i = 0; i < userDTOs.size(); i++) {
+            List<String> errors = userDTOValidator.validate(userDTOs.get(i));
+            if (errors.isEmpty()) {
+                users.add(userMapper.toModel(userDTOs.get(i)));
+                positions.add(i);
+            } else {
+                rejected.add(new BatchRowDTO().setIndex(i).setErrors(errors));
+            }
+        }
+
+        BatchCreateResult result = userService.createAll(users);
+
+        List<BatchRowDTO> created = new ArrayList<>(result.getCreated().size());
+        result.getCreated().forEach((index, user) ->
+                created.add(new BatchRowDTO().setIndex(positions.get(index)).setData(userMapper.toDTO(user))));
+        result.getRejected().forEach((index, errors) ->
+                rejected.add(new BatchRowDTO().setIndex(positions.get(index)).setErrors(errors)));
+        rejected.sort(Comparator.comparingInt(BatchRowDTO::getIndex));
+
+        return ResponseDTO.<UserBatchResultDTO>builder()
+                .data(new UserBatchResultDTO(created, rejected))
+                .build();
+    }
+
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "OK"),
             @ApiResponse(responseCode = "400", description = "Bad request"),
@@ -51,12 +156,17 @@ public class UserController {
     })
     @Operation(summary = "Update an existing user")
     @PutMapping("/{userId}")
-    public ResponseDTO<UserDTO> updateUser(@Parameter(description = "ID of the user to update") @PathVariable Long userId,
-                                           @Valid @RequestBody @JsonView({UserDTO.Input.class}) UserDTO userDTO) {
+    public ResponseEntity<ResponseDTO<UserDTO>> updateUser(@Parameter(description = "ID of the user to update") @PathVariable Long userId,
+                                                           @Parameter(description = "ETag of the user as last read; the update fails with 412 if it changed since")
+                                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                           @Valid @RequestBody @JsonView({UserDTO.Input.class}) UserDTO userDTO) {
         userDTO.setId(userId);
-        return ResponseDTO.<UserDTO>builder()
-                .data(userMapper.toDTO(userService.update(userMapper.toModel(userDTO))))
-                .build();
+        User user = userService.update(userMapper.toModel(userDTO), expectedVersion(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(UserETags.of(user))
+                .body(ResponseDTO.<UserDTO>builder()
+                        .data(userMapper.toDTO(user))
+                        .build());
     }
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "OK"),
@@ -65,12 +175,17 @@ public class UserController {
     })
     @Operation(summary = "Update some fields of an existing user")
     @PatchMapping("/{userId}")
-    public ResponseDTO<UserDTO> updateSomeUserFields(@Parameter(description = "ID of the user to update") @PathVariable Long userId,
-                                                     @Valid @RequestBody @JsonView({UserDTO.InputSomeFields.class}) UserDTO userDTO) {
+    public ResponseEntity<ResponseDTO<UserDTO>> updateSomeUserFields(@Parameter(description = "ID of the user to update") @PathVariable Long userId,
+                                                                     @Parameter(description = "ETag of the user as last read; the update fails with 412 if it changed since")
+                                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                                     @Valid @RequestBody @JsonView({UserDTO.InputSomeFields.class}) UserDTO userDTO) {
         userDTO.setId(userId);
-        return ResponseDTO.<UserDTO>builder()
-                .data(userMapper.toDTO(userService.updateSomeFields(userMapper.toModel(userDTO))))
-                .build();
+        User user = userService.updateSomeFields(userMapper.toModel(userDTO), expectedVersion(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(UserETags.of(user))
+                .body(ResponseDTO.<UserDTO>builder()
+                        .data(userMapper.toDTO(user))
+                        .build());
     }
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "No content"),
@@ -84,6 +199,29 @@ public class UserController {
         return ResponseEntity.noContent().build();
     }
 
+    @Operation(summary = "Delete several users by ID, reporting the IDs that had no user")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Bad request"),
+    })
+    @DeleteMapping("/batch")
+    public ResponseDTO<UserDeleteResultDTO> deleteUsers(@RequestBody List<Long> userIds) {
+        return toDeleteResponse(userService.deleteAll(userIds));
+    }
+
+    @Operation(summary = "Delete all users born within a birth date range")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Bad request"),
+    })
+    @DeleteMapping
+    public ResponseDTO<UserDeleteResultDTO> deleteUsersByBirthDateRange(@Parameter(description = "Start date for the range")
+                                                                        @RequestParam Long from,
+                                                                        @Parameter(description = "End date for the range")
+                                                                        @RequestParam Long to) {
+        return toDeleteResponse(userService.deleteByBirthDateBetween(new Date(from), new Date(to)));
+    }
+
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "OK"),
             @ApiResponse(responseCode = "400", description = "Bad request"),
@@ -97,20 +235,187 @@ public class UserController {
                                                                    @Parameter(description = "Start date for the range")
                                                                    @RequestParam Long from,
                                                                    @Parameter(description = "End date for the range")
-                                                                   @RequestParam Long to) {
-        Page<User> pageData = userService.findByBirthDateBetween(new Date(from), new Date(to), size, page);
+                                                                   @RequestParam Long to,
+                                                                   @Parameter(description = "Cursor of the page to fetch, ordered by birth date and id. " +
+                                                                           "Pass an empty cursor to start, then the returned next_cursor; page is ignored")
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @Parameter(description = "Count the whole range for total_elements and total_pages (default is true). " +
+                                                                           "When false only has_next is returned")
+                                                                   @RequestParam(required = false, defaultValue = "true") boolean count,
+                                                                   @Parameter(description = "With count=false, return a cached estimate of the totals (default is false)")
+                                                                   @RequestParam(required = false, defaultValue = "false") boolean estimate,
+                                                                   WebRequest request,
+                                                                   HttpServletResponse response) {
+        varyByFormat(response);
+        // no ETag for cursor and slice pages: their version would need the range-wide count they exist to avoid
+        if (cursor != null) {
+            return getUsersByBirthDateRangeAfter(new Date(from), new Date(to), cursor, size);
+        }
+        if (!count) {
+            return getUsersSliceByBirthDateRange(new Date(from), new Date(to), size, page, estimate);
+        }
+
+        // the page can only differ if a user in the range was added, removed or modified
+        UserRangeVersion version = userService.getVersionByBirthDateBetween(new Date(from), new Date(to));
+        if (request.checkNotModified(UserETags.of(version, page, size))) {
+            return null;
+        }
+
+        Page<UserRow> pageData = userService.findByBirthDateBetween(new Date(from), new Date(to), size, page);
 
         List<UserDTO> categoryDTOs = pageData.getContent().stream()
                 .map(userMapper::toDTO)
                 .toList();
 
         return ResponseListDTO.<List<UserDTO>>builder()
-                .currentPage(pageData.getNumber())
+                .currentPage((long) pageData.getNumber())
                 .size(pageData.getSize())
                 .data(categoryDTOs)
                 .totalElements(pageData.getTotalElements())
-                .totalPages(pageData.getTotalPages())
+                .totalPages((long) pageData.getTotalPages())
+                .build();
+
+    }
+
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "400", description = "Bad request"),
+    })
+    @Operation(summary = "Export all users by birth date range, streamed as NDJSON or CSV")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsersByBirthDateRange(@Parameter(description = "Start date for the range")
+                                                                             @RequestParam Long from,
+                                                                             @Parameter(description = "End date for the range")
+                                                                             @RequestParam Long to,
+                                                                             @Parameter(description = "ndjson (default) or csv")
+                                                                             @RequestParam(required = false, defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        // rows are written while the cursor is read, so the first bytes leave before the query is done
+        StreamingResponseBody body = outputStream -> {
+            try (UserExportWriter writer = exportFormat.writer(objectMapper, outputStream)) {
+                userService.exportByBirthDateBetween(new Date(from), new Date(to), user -> {
+                    try {
+                        writer.write(userMapper.toDTO(user));
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"users." + exportFormat.name().toLowerCase() + "\"")
+                .body(body);
+    }
+
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Import started"),
+            @ApiResponse(responseCode = "400", description = "Bad request"),
+            @ApiResponse(responseCode = "503", description = "Too many imports running or queued"),
+    })
+    @Operation(summary = "Import users from an NDJSON or CSV upload as a background job")
+    @PostMapping("/import")
+    public ResponseEntity<ResponseDTO<UserImportJobDTO>> importUsers(@Parameter(description = "ndjson (default) or csv")
+                                                                     @RequestParam(required = false, defaultValue = "ndjson") String format,
+                                                                     InputStream upload) throws IOException {
+        UserImportJob job = userImportService.start(ImportFormat.of(format), upload);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequestUri().path("/{jobId}").buildAndExpand(job.getId()).toUri())
+                .body(ResponseDTO.<UserImportJobDTO>builder()
+                        .data(toImportJobDTO(job))
+                        .build());
+    }
+
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "404", description = "Not found"),
+    })
+    @Operation(summary = "Get the progress of an import")
+    @GetMapping("/import/{jobId}")
+    public ResponseDTO<UserImportJobDTO> getImportJob(@Parameter(description = "ID of the import job") @PathVariable UUID jobId) {
+        return ResponseDTO.<UserImportJobDTO>builder()
+                .data(toImportJobDTO(userImportService.getJob(jobId)))
                 .build();
+    }
+
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK"),
+            @ApiResponse(responseCode = "404", description = "Not found"),
+    })
+    @Operation(summary = "Stream the rejected records of an import as NDJSON, complete once the job has finished")
+    @GetMapping("/import/{jobId}/errors")
+    public ResponseEntity<StreamingResponseBody> getImportJobErrors(@Parameter(description = "ID of the import job") @PathVariable UUID jobId) {
+        UserImportJob job = userImportService.getJob(jobId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(outputStream -> Files.copy(job.getErrorFile(), outputStream));
+    }
 
+    // one URL answers in JSON, CBOR or Smile, so caches must not hand one format to a client asking for another
+    private static void varyByFormat(HttpServletResponse response) {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+    }
+
+    private static Long expectedVersion(String ifMatch) {
+        return ifMatch == null ? null : UserETags.parseIfMatch(ifMatch);
+    }
+
+    private static UserImportJobDTO toImportJobDTO(UserImportJob job) {
+        return new UserImportJobDTO()
+                .setId(job.getId())
+                .setStatus(job.getStatus().name())
+                .setProcessed(job.getProcessed())
+                .setCreated(job.getCreated().get())
+                .setRejected(job.getRejected().get())
+                .setRecordsPerSecond(job.getThroughput())
+                .setStartedAt(job.getStartedAt())
+                .setFinishedAt(job.getFinishedAt())
+                .setError(job.getError());
+    }
+
+    private ResponseDTO<UserDeleteResultDTO> toDeleteResponse(BatchDeleteResult result) {
+        return ResponseDTO.<UserDeleteResultDTO>builder()
+                .data(new UserDeleteResultDTO(result.getDeleted(), result.getMissingIds()))
+                .build();
+    }
+
+    private ResponseListDTO<List<UserDTO>> getUsersSliceByBirthDateRange(Date from, Date to, int size, int page, boolean estimate) {
+        Slice<UserRow> sliceData = userService.findSliceByBirthDateBetween(from, to, size, page);
+
+        List<UserDTO> userDTOs = sliceData.getContent().stream()
+                .map(userMapper::toDTO)
+                .toList();
+
+        ResponseListDTO<List<UserDTO>> response = ResponseListDTO.<List<UserDTO>>builder()
+                .currentPage((long) sliceData.getNumber())
+                .size(sliceData.getSize())
+                .data(userDTOs)
+                .hasNext(sliceData.hasNext())
+                .build();
+
+        if (estimate) {
+            long totalElements = userService.estimateCountByBirthDateBetween(from, to);
+            response.setTotalElements(totalElements);
+            response.setTotalPages((totalElements + size - 1) / size);
+        }
+        return response;
+    }
+
+    private ResponseListDTO<List<UserDTO>> getUsersByBirthDateRangeAfter(Date from, Date to, String cursor, int size) {
+        UserCursor after = cursor.isEmpty() ? null : UserCursor.decode(cursor);
+        Slice<UserRow> sliceData = userService.findByBirthDateBetweenAfter(from, to, after, size);
+
+        List<UserDTO> userDTOs = sliceData.getContent().stream()
+                .map(userMapper::toDTO)
+                .toList();
+
+        return ResponseListDTO.<List<UserDTO>>builder()
+                .size(sliceData.getSize())
+                .data(userDTOs)
+                .hasNext(sliceData.hasNext())
+                .nextCursor(sliceData.hasNext() ? UserCursor.of(sliceData.getContent().get(sliceData.getNumberOfElements() - 1)).encode() : null)
+                .build();
     }
 }
@@ -17,8 +17,10 @@ import java.io.Serializable;
 @EntityListeners(AuditingEntityListener.class)
 public abstract class BaseEntity implements Serializable {
 
+    // pooled sequence instead of IDENTITY, so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "service_user_seq")
+    @SequenceGenerator(name = "service_user_seq", sequenceName = "service_user_seq", allocationSize = 50)
     private Long id;
 
     @CreatedDate
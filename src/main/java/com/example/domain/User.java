@@ -6,6 +6,7 @@ import lombok.Setter;
 import lombok.ToString;
 import lombok.experimental.Accessors;
 import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.envers.Audited;
 
 import java.util.Date;
 
@@ -13,6 +14,7 @@ import java.util.Date;
 @Setter
 @Entity
 @ToString
+@Audited
 @DynamicUpdate
 @Accessors(chain = true)
 @Table(name = "service_user")
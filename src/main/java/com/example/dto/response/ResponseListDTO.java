@@ -1,5 +1,6 @@
 package com.example.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
@@ -13,19 +14,28 @@ import lombok.experimental.SuperBuilder;
 @NoArgsConstructor
 @AllArgsConstructor
 @EqualsAndHashCode(callSuper = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
 @Schema(description = "Wrapper for multi")
 public class ResponseListDTO<D> extends ResponseDTO<D> {
 
     @JsonProperty("current_page")
-    private long currentPage;
+    private Long currentPage;
 
     @JsonProperty("total_elements")
-    private long totalElements;
+    private Long totalElements;
 
     @JsonProperty("total_pages")
-    private long totalPages;
+    private Long totalPages;
 
     @JsonProperty("size")
     private long size;
 
-}
\ No newline at end of file
+    @Schema(description = "Whether another page follows, set when totals are not counted")
+    @JsonProperty("has_next")
+    private Boolean hasNext;
+
+    @Schema(description = "Opaque cursor of the next page, absent on the last page of a cursor search")
+    @JsonProperty("next_cursor")
+    private String nextCursor;
+
+}
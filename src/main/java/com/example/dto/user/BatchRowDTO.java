@@ -0,0 +1,26 @@
+package com.example.dto.user;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Accessors(chain = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Outcome of a single row of a batch")
+public class BatchRowDTO {
+
+    @Schema(description = "Position of the row in the submitted batch", example = "0")
+    private int index;
+
+    private UserDTO data;
+
+    private List<String> errors;
+}
@@ -0,0 +1,21 @@
+package com.example.dto.user;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Accessors(chain = true)
+@Schema(description = "Created and rejected rows of a batch")
+public class UserBatchResultDTO {
+
+    private List<BatchRowDTO> created;
+
+    private List<BatchRowDTO> rejected;
+}
@@ -0,0 +1,25 @@
+package com.example.dto.user;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Accessors(chain = true)
+@Schema(description = "Outcome of a bulk delete")
+public class UserDeleteResultDTO {
+
+    @Schema(description = "Users deleted")
+    private long deleted;
+
+    @Schema(description = "Requested IDs that had no user")
+    @JsonProperty("missing_ids")
+    private List<Long> missingIds;
+}
@@ -0,0 +1,44 @@
+package com.example.dto.user;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@Accessors(chain = true)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Progress of a background user import")
+public class UserImportJobDTO {
+
+    private UUID id;
+
+    @Schema(description = "QUEUED, RUNNING, COMPLETED or FAILED", example = "RUNNING")
+    private String status;
+
+    @Schema(description = "Records read so far, created or rejected")
+    private long processed;
+
+    private long created;
+
+    private long rejected;
+
+    @Schema(description = "Records processed per second")
+    @JsonProperty("records_per_second")
+    private double recordsPerSecond;
+
+    @JsonProperty("started_at")
+    private Instant startedAt;
+
+    @JsonProperty("finished_at")
+    private Instant finishedAt;
+
+    @Schema(description = "Why the job stopped, set when it failed")
+    private String error;
+}
@@ -1,8 +1,12 @@
 package com.example.exception;
 
+/**
+ * An error caused by the request, answered with a 4xx. Created without a stack trace: the message says what went
+ * wrong and a trace would only point at the same validation code every time, at the cost of walking the stack.
+ */
 public class ClientException extends RuntimeException {
 
     public ClientException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -0,0 +1,16 @@
+package com.example.exception.export;
+
+import com.example.exception.ClientException;
+
+public class UnsupportedExportFormatException extends ClientException {
+
+    private static final String DEFAULT_MESSAGE = "Unsupported export format";
+
+    public UnsupportedExportFormatException() {
+        super(DEFAULT_MESSAGE);
+    }
+
+    public UnsupportedExportFormatException(String format) {
+        super(String.format("Unsupported export format %s, expected ndjson or csv", format));
+    }
+}
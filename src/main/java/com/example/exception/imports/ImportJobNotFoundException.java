@@ -0,0 +1,18 @@
+package com.example.exception.imports;
+
+import com.example.exception.ClientException;
+
+import java.util.UUID;
+
+public class ImportJobNotFoundException extends ClientException {
+
+    private static final String DEFAULT_MESSAGE = "Import job not found";
+
+    public ImportJobNotFoundException() {
+        super(DEFAULT_MESSAGE);
+    }
+
+    public ImportJobNotFoundException(UUID jobId) {
+        super(String.format("Import job %s not found", jobId));
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.exception.imports;
+
+import com.example.exception.ClientException;
+
+public class ImportQueueFullException extends ClientException {
+
+    private static final String DEFAULT_MESSAGE = "Too many imports in progress, try again later";
+
+    public ImportQueueFullException() {
+        super(DEFAULT_MESSAGE);
+    }
+
+    public ImportQueueFullException(int maxJobs) {
+        super(String.format("%d imports are already running or queued, try again later", maxJobs));
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.exception.imports;
+
+import com.example.exception.ClientException;
+import org.springframework.util.unit.DataSize;
+
+public class ImportUploadTooLargeException extends ClientException {
+
+    private static final String DEFAULT_MESSAGE = "Import upload too large";
+
+    public ImportUploadTooLargeException() {
+        super(DEFAULT_MESSAGE);
+    }
+
+    public ImportUploadTooLargeException(DataSize maxSize) {
+        super(String.format("Import upload larger than %d bytes", maxSize.toBytes()));
+    }
+}
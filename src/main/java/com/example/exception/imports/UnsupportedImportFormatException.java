@@ -0,0 +1,16 @@
+package com.example.exception.imports;
+
+import com.example.exception.ClientException;
+
+public class UnsupportedImportFormatException extends ClientException {
+
+    private static final String DEFAULT_MESSAGE = "Unsupported import format";
+
+    public UnsupportedImportFormatException() {
+        super(DEFAULT_MESSAGE);
+    }
+
+    public UnsupportedImportFormatException(String format) {
+        super(String.format("Unsupported import format %s, expected ndjson or csv", format));
+    }
+}
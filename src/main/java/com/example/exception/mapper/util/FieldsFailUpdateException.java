@@ -1,8 +0,0 @@
-package com.example.exception.mapper.util;
-
-public class FieldsFailUpdateException extends RuntimeException{
-
-    public FieldsFailUpdateException(String message) {
-        super(message);
-    }
-}
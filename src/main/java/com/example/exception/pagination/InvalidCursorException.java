@@ -0,0 +1,16 @@
+package com.example.exception.pagination;
+
+import com.example.exception.ClientException;
+
+public class InvalidCursorException extends ClientException {
+
+    private static final String DEFAULT_MESSAGE = "Invalid cursor";
+
+    public InvalidCursorException() {
+        super(DEFAULT_MESSAGE);
+    }
+
+    public InvalidCursorException(String cursor) {
+        super(String.format("Invalid cursor %s", cursor));
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.exception.user;
+
+import com.example.exception.ClientException;
+
+import java.util.Date;
+
+public class InvalidBirthDateRangeException extends ClientException {
+
+    private static final String DEFAULT_MESSAGE = "Invalid birth date range";
+
+    public InvalidBirthDateRangeException() {
+        super(DEFAULT_MESSAGE);
+    }
+
+    public InvalidBirthDateRangeException(Date from, Date to) {
+        super(String.format("Invalid birth date range: from %d is after to %d", from.getTime(), to.getTime()));
+    }
+}
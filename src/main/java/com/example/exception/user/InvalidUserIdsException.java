@@ -0,0 +1,16 @@
+package com.example.exception.user;
+
+import com.example.exception.ClientException;
+
+public class InvalidUserIdsException extends ClientException {
+
+    private static final String DEFAULT_MESSAGE = "Invalid user IDs";
+
+    public InvalidUserIdsException() {
+        super(DEFAULT_MESSAGE);
+    }
+
+    public InvalidUserIdsException(String message) {
+        super(message);
+    }
+}
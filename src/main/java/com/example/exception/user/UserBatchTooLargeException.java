@@ -0,0 +1,16 @@
+package com.example.exception.user;
+
+import com.example.exception.ClientException;
+
+public class UserBatchTooLargeException extends ClientException {
+
+    private static final String DEFAULT_MESSAGE = "Too many users in one batch";
+
+    public UserBatchTooLargeException() {
+        super(DEFAULT_MESSAGE);
+    }
+
+    public UserBatchTooLargeException(int maxSize) {
+        super(String.format("At most %d users can be created in one batch", maxSize));
+    }
+}
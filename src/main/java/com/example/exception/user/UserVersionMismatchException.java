@@ -0,0 +1,16 @@
+package com.example.exception.user;
+
+import com.example.exception.ClientException;
+
+public class UserVersionMismatchException extends ClientException {
+
+    private static final String DEFAULT_MESSAGE = "User was modified since it was read";
+
+    public UserVersionMismatchException() {
+        super(DEFAULT_MESSAGE);
+    }
+
+    public UserVersionMismatchException(Long userId) {
+        super(String.format("User with id %d was modified since it was read", userId));
+    }
+}
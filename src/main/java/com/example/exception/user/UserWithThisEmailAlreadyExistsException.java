@@ -14,6 +14,10 @@ public class UserWithThisEmailAlreadyExistsException extends ClientException {
     }
 
     public UserWithThisEmailAlreadyExistsException(String email) {
-        super(String.format("User with email %s already exists", email));
+        super(messageFor(email));
+    }
+
+    public static String messageFor(String email) {
+        return String.format("User with email %s already exists", email);
     }
 }
\ No newline at end of file
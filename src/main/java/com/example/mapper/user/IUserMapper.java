@@ -2,10 +2,12 @@ package com.example.mapper.user;
 
 import com.example.domain.User;
 import com.example.dto.user.UserDTO;
+import com.example.repository.projection.UserRow;
 
 public interface IUserMapper {
 
 
     User toModel(UserDTO dto);
     UserDTO toDTO(User model);
+    UserDTO toDTO(UserRow row);
 }
@@ -3,26 +3,51 @@ package com.example.mapper.user.imp;
 import com.example.domain.User;
 import com.example.dto.user.UserDTO;
 import com.example.mapper.user.IUserMapper;
-import org.modelmapper.ModelMapper;
+import com.example.repository.projection.UserRow;
 import org.springframework.stereotype.Component;
 
+/**
+ * Field-by-field mapping between {@link User} and {@link UserDTO}, without reflection.
+ * Null source values stay null on the new target and values are passed by reference,
+ * as with the skip-null ModelMapper it replaces.
+ */
 @Component
 public class UserMapper implements IUserMapper {
 
-    private final ModelMapper modelMapper;
-
-    public UserMapper(ModelMapper modelMapper) {
-        this.modelMapper = modelMapper;
-    }
-
-
     @Override
     public User toModel(UserDTO dto) {
-        return modelMapper.map(dto, User.class);
+        User model = new User()
+                .setEmail(dto.getEmail())
+                .setFirstName(dto.getFirstName())
+                .setLastName(dto.getLastName())
+                .setBirthDate(dto.getBirthDate())
+                .setAddress(dto.getAddress())
+                .setPhoneNumber(dto.getPhoneNumber());
+        model.setId(dto.getId());
+        return model;
     }
 
     @Override
     public UserDTO toDTO(User model) {
-        return modelMapper.map(model, UserDTO.class);
+        return new UserDTO()
+                .setId(model.getId())
+                .setEmail(model.getEmail())
+                .setFirstName(model.getFirstName())
+                .setLastName(model.getLastName())
+                .setBirthDate(model.getBirthDate())
+                .setAddress(model.getAddress())
+                .setPhoneNumber(model.getPhoneNumber());
+    }
+
+    @Override
+    public UserDTO toDTO(UserRow row) {
+        return new UserDTO()
+                .setId(row.id())
+                .setEmail(row.email())
+                .setFirstName(row.firstName())
+                .setLastName(row.lastName())
+                .setBirthDate(row.birthDate())
+                .setAddress(row.address())
+                .setPhoneNumber(row.phoneNumber());
     }
 }
@@ -0,0 +1,44 @@
+package com.example.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out Envers revision numbers to code that writes {@code revinfo} rows itself. A {@code revinfo_seq} value
+ * v reserves revisions v-49..v, as Hibernate's pooled optimizer does, so both can draw from the sequence at once.
+ */
+@Component
+@RequiredArgsConstructor
+public class RevisionNumberAllocator {
+
+    // increment of revinfo_seq
+    private static final int BLOCK_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // reserved from revinfo_seq but not used yet
+    private final Deque<Integer> revisions = new ArrayDeque<>();
+
+    // a lock, not synchronized: the nextval call would pin a virtual thread's carrier while it waits
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public int next() {
+        lock.lock();
+        try {
+            if (revisions.isEmpty()) {
+                Long high = jdbcTemplate.queryForObject("SELECT nextval('revinfo_seq')", Long.class);
+                for (long rev = Math.max(1, high - BLOCK_SIZE + 1); rev <= high; rev++) {
+                    revisions.add((int) rev);
+                }
+            }
+            return revisions.poll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.repository;
+
+import com.example.repository.projection.DeletedUser;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+public interface UserBulkDeleteRepository {
+
+    /**
+     * Delete users with one statement per chunk of ids, which also writes their audit rows. All chunks share one
+     * audit revision. Bypasses the persistence context.
+     *
+     * @param ids       The IDs of the users to delete; IDs without a user are skipped.
+     * @param chunkSize The most users deleted by one statement.
+     * @return The users that were deleted.
+     */
+    List<DeletedUser> bulkDeleteByIds(Collection<Long> ids, int chunkSize);
+
+    /**
+     * Delete the users born within a range, in chunks ordered by birth date and ID, like
+     * {@link #bulkDeleteByIds(Collection, int)}.
+     *
+     * @param from      The start of the range, inclusive.
+     * @param to        The end of the range, inclusive.
+     * @param chunkSize The most users deleted by one statement.
+     * @return The users that were deleted.
+     */
+    List<DeletedUser> bulkDeleteByBirthDateBetween(Date from, Date to, int chunkSize);
+}
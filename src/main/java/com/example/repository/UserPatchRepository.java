@@ -0,0 +1,21 @@
+package com.example.repository;
+
+import com.example.domain.User;
+import com.example.repository.projection.UserPatchResult;
+
+import java.util.Optional;
+
+public interface UserPatchRepository {
+
+    /**
+     * Writes the non-null fields of {@code changes} to the user with the same id in one statement, together with
+     * the auditing columns and the audit revision. Bypasses the persistence context: a managed copy of the user
+     * is not refreshed.
+     *
+     * @param changes         The fields to write and the id of the user.
+     * @param expectedVersion If not {@code null}, the update only happens while the user is still at this version.
+     * @return empty if there is no user with this id.
+     * @throws org.springframework.dao.DuplicateKeyException if the new email belongs to another user.
+     */
+    Optional<UserPatchResult> patch(User changes, Long expectedVersion);
+}
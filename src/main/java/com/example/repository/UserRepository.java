@@ -1,21 +1,79 @@
 package com.example.repository;
 
 import com.example.domain.User;
+import com.example.repository.projection.UserRangeVersion;
+import com.example.repository.projection.UserRow;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_FLUSH_MODE;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserPatchRepository, UserBulkDeleteRepository {
+
+    // search results skip entity hydration, and the pending-changes flush before each query
+    String SELECT_USER_ROW = "SELECT new com.example.repository.projection.UserRow(" +
+            "u.id, u.email, u.firstName, u.lastName, u.birthDate, u.address, u.phoneNumber) FROM User u ";
+
+    @QueryHints(@QueryHint(name = HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query(value = SELECT_USER_ROW + "WHERE u.birthDate BETWEEN ?1 AND ?2",
+            countQuery = "SELECT COUNT(u) FROM User u WHERE u.birthDate BETWEEN ?1 AND ?2")
+    Page<UserRow> findByBirthDateBetween(Date from, Date to, PageRequest pageRequest);
+
+    @QueryHints(@QueryHint(name = HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query(SELECT_USER_ROW + "WHERE u.birthDate BETWEEN ?1 AND ?2")
+    Slice<UserRow> findSliceByBirthDateBetween(Date from, Date to, Pageable pageable);
+
+    long countByBirthDateBetween(Date from, Date to);
+
+    @Query("SELECT new com.example.repository.projection.UserRangeVersion(MAX(u.lastModifiedDate), COUNT(u)) " +
+            "FROM User u WHERE u.birthDate BETWEEN ?1 AND ?2")
+    UserRangeVersion findVersionByBirthDateBetween(Date from, Date to);
 
-    Page<User> findByBirthDateBetween(Date from, Date to, PageRequest pageRequest);
+    @QueryHints(@QueryHint(name = HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query(SELECT_USER_ROW + "WHERE u.birthDate BETWEEN ?1 AND ?2 ORDER BY u.birthDate, u.id")
+    List<UserRow> findByBirthDateBetweenOrderByBirthDateAscIdAsc(Date from, Date to, Pageable limit);
+
+    // keyset predicate for (birthDate, id) > (?3, ?4); the extra ">=" lets the index range start at the cursor
+    @QueryHints(@QueryHint(name = HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query(SELECT_USER_ROW + "WHERE u.birthDate BETWEEN ?1 AND ?2 AND u.birthDate >= ?3 " +
+            "AND (u.birthDate > ?3 OR u.id > ?4) ORDER BY u.birthDate, u.id")
+    List<UserRow> findByBirthDateBetweenAfter(Date from, Date to, Date lastBirthDate, Long lastId, Pageable limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<User> findForUpdateById(Long id);
 
     Boolean existsByEmail(String email);
 
     @Query("SELECT COUNT(u) > 0 FROM User u WHERE u.email = ?1 AND u.id <> ?2")
     Boolean existsByEmailAndNotId(String email, Long id);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN ?1")
+    Set<String> findExistingEmails(Collection<String> emails);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.email FROM User u")
+    Stream<String> streamAllEmails();
+
+    // forward-only cursor: Postgres only honours the fetch size inside a transaction
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_FLUSH_MODE, value = "COMMIT")})
+    @Query(SELECT_USER_ROW + "WHERE u.birthDate BETWEEN ?1 AND ?2 ORDER BY u.birthDate, u.id")
+    Stream<UserRow> streamByBirthDateBetween(Date from, Date to);
 }
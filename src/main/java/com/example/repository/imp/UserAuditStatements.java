@@ -0,0 +1,79 @@
+package com.example.repository.imp;
+
+import com.example.repository.RevisionNumberAllocator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Audit rows for users changed with plain SQL, written by the same statement through data-modifying CTEs: the
+ * {@code revinfo} and {@code service_user_aud} rows Envers would have written, or {@code user_audit_outbox} rows
+ * in the audit-outbox profile.
+ */
+@Component
+public class UserAuditStatements {
+
+    // org.hibernate.envers.RevisionType ordinals, as stored in service_user_aud.revtype
+    static final int MOD = 1;
+    static final int DEL = 2;
+
+    static final String USER_COLUMNS = "email, first_name, last_name, birth_date, address, phone_number, " +
+            "created_date, last_modified_date, created_by, last_modified_by";
+
+    private final RevisionNumberAllocator revisionNumbers;
+
+    private final boolean auditOutbox;
+
+    public UserAuditStatements(RevisionNumberAllocator revisionNumbers,
+                               @Value("${user.audit.outbox.enabled}") boolean auditOutbox) {
+        this.revisionNumbers = revisionNumbers;
+        this.auditOutbox = auditOutbox;
+    }
+
+    /**
+     * Start a revision. Every statement audited with it belongs to the same revision, as all changes of one
+     * transaction do with Envers.
+     */
+    Revision newRevision() {
+        long timestamp = System.currentTimeMillis();
+        return auditOutbox
+                ? new Revision(0, UUID.randomUUID(), timestamp)
+                : new Revision(revisionNumbers.next(), null, timestamp);
+    }
+
+    /**
+     * Append CTEs that audit the rows returned by the CTE {@code source}, which must return {@code id} and, unless
+     * {@code revisionType} is {@link #DEL}, the other {@link #USER_COLUMNS}. Deletions only record the id, like
+     * Envers without {@code store_data_at_delete}.
+     */
+    void appendAudit(StringBuilder sql, List<Object> args, Revision revision, String source, int revisionType) {
+        String columns = revisionType == DEL ? "" : ", " + USER_COLUMNS;
+        if (auditOutbox) {
+            sql.append("outbox AS (INSERT INTO user_audit_outbox (tx_id, revtstmp, revtype, user_id").append(columns)
+                    .append(") SELECT ?, ?, ").append(revisionType).append(", id").append(columns)
+                    .append(" FROM ").append(source).append(") ");
+            args.add(revision.txId());
+            args.add(revision.timestamp());
+        } else {
+            // later statements of the revision find its revinfo row already there
+            sql.append("rev AS (INSERT INTO revinfo (rev, revtstmp) SELECT ?, ? WHERE EXISTS (SELECT 1 FROM ")
+                    .append(source).append(") ON CONFLICT (rev) DO NOTHING), ")
+                    .append("aud AS (INSERT INTO service_user_aud (id, rev, revtype").append(columns)
+                    .append(") SELECT id, ?, ").append(revisionType).append(columns)
+                    .append(" FROM ").append(source).append(") ");
+            args.add(revision.rev());
+            args.add(revision.timestamp());
+            args.add(revision.rev());
+        }
+    }
+
+    /**
+     * @param rev       The Envers revision number, unused with the outbox.
+     * @param txId      The outbox transaction id, {@code null} without the outbox.
+     * @param timestamp The revision timestamp, also used as last modified date.
+     */
+    record Revision(int rev, UUID txId, long timestamp) {
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.repository.imp;
+
+import com.example.repository.UserBulkDeleteRepository;
+import com.example.repository.projection.DeletedUser;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.support.AbstractSqlTypeValue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Set-based deletes, one Postgres statement per chunk: a data-modifying CTE deletes the chunk and returns it,
+ * and the audit CTEs record a deletion for each returned row.
+ */
+public class UserBulkDeleteRepositoryImpl implements UserBulkDeleteRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final UserAuditStatements auditStatements;
+
+    public UserBulkDeleteRepositoryImpl(JdbcTemplate jdbcTemplate, UserAuditStatements auditStatements) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.auditStatements = auditStatements;
+    }
+
+    @Override
+    public List<DeletedUser> bulkDeleteByIds(Collection<Long> ids, int chunkSize) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        UserAuditStatements.Revision revision = auditStatements.newRevision();
+        List<Long> idList = List.copyOf(ids);
+        List<DeletedUser> deleted = new ArrayList<>(idList.size());
+
+        for (int from = 0; from < idList.size(); from += chunkSize) {
+            Long[] chunk = idList.subList(from, Math.min(from + chunkSize, idList.size())).toArray(Long[]::new);
+            List<Object> args = new ArrayList<>();
+            args.add(bigintArray(chunk));
+            StringBuilder sql = new StringBuilder(
+                    "WITH del AS (DELETE FROM service_user WHERE id = ANY (?) RETURNING id, email), ");
+            auditStatements.appendAudit(sql, args, revision, "del", UserAuditStatements.DEL);
+            sql.append("SELECT id, email FROM del");
+            deleted.addAll(jdbcTemplate.query(sql.toString(),
+                    (rs, rowNum) -> new DeletedUser(rs.getLong("id"), rs.getString("email")), args.toArray()));
+        }
+        return deleted;
+    }
+
+    @Override
+    public List<DeletedUser> bulkDeleteByBirthDateBetween(Date from, Date to, int chunkSize) {
+        UserAuditStatements.Revision revision = auditStatements.newRevision();
+        List<DeletedUser> deleted = new ArrayList<>();
+        java.sql.Date lastBirthDate = null;
+        long lastId = 0;
+
+        List<DeletedChunkRow> chunk;
+        do {
+            // keyset on (birth_date, id): later chunks start past the rows already deleted instead of skipping them
+            List<Object> args = new ArrayList<>(List.of(new java.sql.Date(from.getTime()), new java.sql.Date(to.getTime())));
+            StringBuilder sql = new StringBuilder("WITH del AS (DELETE FROM service_user WHERE id IN (" +
+                    "SELECT id FROM service_user WHERE birth_date BETWEEN ? AND ?");
+            if (lastBirthDate != null) {
+                sql.append(" AND (birth_date, id) > (?, ?)");
+                args.add(lastBirthDate);
+                args.add(lastId);
+            }
+            sql.append(" ORDER BY birth_date, id LIMIT ?) RETURNING id, email, birth_date), ");
+            args.add(chunkSize);
+            auditStatements.appendAudit(sql, args, revision, "del", UserAuditStatements.DEL);
+            sql.append("SELECT id, email, birth_date FROM del ORDER BY birth_date, id");
+
+            chunk = jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new DeletedChunkRow(
+                    new DeletedUser(rs.getLong("id"), rs.getString("email")), rs.getDate("birth_date")), args.toArray());
+            for (DeletedChunkRow row : chunk) {
+                deleted.add(row.user());
+            }
+            if (!chunk.isEmpty()) {
+                DeletedChunkRow last = chunk.get(chunk.size() - 1);
+                lastBirthDate = last.birthDate();
+                lastId = last.user().id();
+            }
+        } while (chunk.size() == chunkSize);
+        return deleted;
+    }
+
+    private static AbstractSqlTypeValue bigintArray(Long[] values) {
+        return new AbstractSqlTypeValue() {
+            @Override
+            protected Object createTypeValue(Connection connection, int sqlType, String typeName) throws SQLException {
+                return connection.createArrayOf("bigint", values);
+            }
+        };
+    }
+
+    private record DeletedChunkRow(DeletedUser user, java.sql.Date birthDate) {
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.repository.imp;
+
+import com.example.domain.User;
+import com.example.repository.UserPatchRepository;
+import com.example.repository.projection.UserPatchResult;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Partial updates as one Postgres statement. Data-modifying CTEs lock the row, update it and write its audit rows;
+ * the final select tells a missing user from a version mismatch.
+ */
+public class UserPatchRepositoryImpl implements UserPatchRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final UserAuditStatements auditStatements;
+
+    private final AuditorAware<String> auditorProvider;
+
+    public UserPatchRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                   UserAuditStatements auditStatements,
+                                   AuditorAware<String> auditorProvider) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.auditStatements = auditStatements;
+        this.auditorProvider = auditorProvider;
+    }
+
+    @Override
+    public Optional<UserPatchResult> patch(User changes, Long expectedVersion) {
+        UserAuditStatements.Revision revision = auditStatements.newRevision();
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(
+                "WITH old AS (SELECT id, email, last_modified_date FROM service_user WHERE id = ? FOR UPDATE), " +
+                "upd AS (UPDATE service_user u SET ");
+        args.add(changes.getId());
+
+        set(sql, args, "email", changes.getEmail());
+        set(sql, args, "first_name", changes.getFirstName());
+        set(sql, args, "last_name", changes.getLastName());
+        if (changes.getBirthDate() != null) {
+            set(sql, args, "birth_date", new java.sql.Date(changes.getBirthDate().getTime()));
+        }
+        set(sql, args, "address", changes.getAddress());
+        set(sql, args, "phone_number", changes.getPhoneNumber());
+        sql.append("last_modified_date = ?, last_modified_by = ? FROM old WHERE u.id = old.id");
+        args.add(revision.timestamp());
+        args.add(auditorProvider.getCurrentAuditor().orElse(null));
+        if (expectedVersion != null) {
+            sql.append(" AND COALESCE(old.last_modified_date, 0) = ?");
+            args.add(expectedVersion);
+        }
+        sql.append(" RETURNING u.*), ");
+
+        auditStatements.appendAudit(sql, args, revision, "upd", UserAuditStatements.MOD);
+        sql.append("SELECT old.email AS previous_email, upd.* FROM old LEFT JOIN upd ON upd.id = old.id");
+
+        List<UserPatchResult> results = jdbcTemplate.query(sql.toString(),
+                (rs, rowNum) -> new UserPatchResult(rs.getString("previous_email"), mapUpdated(rs)),
+                args.toArray());
+        return results.stream().findFirst();
+    }
+
+    private static void set(StringBuilder sql, List<Object> args, String column, Object value) {
+        if (value != null) {
+            sql.append(column).append(" = ?, ");
+            args.add(value);
+        }
+    }
+
+    private static User mapUpdated(ResultSet rs) throws SQLException {
+        long id = rs.getLong("id");
+        if (rs.wasNull()) {
+            return null;
+        }
+        User user = new User()
+                .setEmail(rs.getString("email"))
+                .setFirstName(rs.getString("first_name"))
+                .setLastName(rs.getString("last_name"))
+                .setBirthDate(rs.getDate("birth_date"))
+                .setAddress(rs.getString("address"))
+                .setPhoneNumber(rs.getString("phone_number"));
+        user.setId(id);
+        user.setCreatedDate(rs.getObject("created_date", Long.class));
+        user.setLastModifiedDate(rs.getObject("last_modified_date", Long.class));
+        user.setCreatedBy(rs.getString("created_by"));
+        user.setLastModifiedBy(rs.getString("last_modified_by"));
+        return user;
+    }
+}
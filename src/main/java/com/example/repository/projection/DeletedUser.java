@@ -0,0 +1,10 @@
+package com.example.repository.projection;
+
+/**
+ * A user removed by a bulk delete, with what is needed to forget it elsewhere.
+ *
+ * @param id    The ID of the deleted user.
+ * @param email The email the user had.
+ */
+public record DeletedUser(long id, String email) {
+}
@@ -0,0 +1,12 @@
+package com.example.repository.projection;
+
+import com.example.domain.User;
+
+/**
+ * Outcome of a single-statement partial update of an existing user.
+ *
+ * @param previousEmail The email of the user before the update.
+ * @param user          The user as updated, or {@code null} if the expected version did not match and nothing changed.
+ */
+public record UserPatchResult(String previousEmail, User user) {
+}
@@ -0,0 +1,10 @@
+package com.example.repository.projection;
+
+/**
+ * Changes whenever a user enters, leaves or is modified within a birth date range.
+ *
+ * @param lastModifiedDate The latest modification in the range, or {@code null} if the range is empty.
+ * @param count            The number of users in the range.
+ */
+public record UserRangeVersion(Long lastModifiedDate, long count) {
+}
@@ -0,0 +1,19 @@
+package com.example.repository.projection;
+
+import java.util.Date;
+
+/**
+ * The columns of a user that the API exposes, selected straight into a record: no managed entity, no snapshot
+ * for dirty checking and no audit columns.
+ *
+ * @param id          The ID of the user.
+ * @param email       The user's email.
+ * @param firstName   The user's first name.
+ * @param lastName    The user's last name.
+ * @param birthDate   The user's birth date.
+ * @param address     The user's address.
+ * @param phoneNumber The user's phone number.
+ */
+public record UserRow(Long id, String email, String firstName, String lastName, Date birthDate,
+                      String address, String phoneNumber) {
+}
@@ -0,0 +1,20 @@
+package com.example.service.audit;
+
+/**
+ * Background writer of user audit history: request transactions store their changes in the
+ * {@code user_audit_outbox} table and this moves them into {@code revinfo} / {@code service_user_aud} in batches.
+ */
+public interface IUserAuditOutbox {
+
+    /**
+     * Record outbox rows written by a committed transaction, flushing early once a full batch is waiting.
+     *
+     * @param rows The number of rows the transaction added to the outbox.
+     */
+    void recordCommitted(int rows);
+
+    /**
+     * Move outbox rows into the audit tables, one revision per original transaction, until the outbox is empty.
+     */
+    void flushPending();
+}
@@ -0,0 +1,54 @@
+package com.example.service.audit.imp;
+
+import com.example.domain.User;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Changes to users within one transaction, merged per user the way Envers merges them into a single revision.
+ */
+class UserAuditChanges {
+
+    // org.hibernate.envers.RevisionType ordinals, as stored in service_user_aud.revtype
+    static final short ADD = 0;
+    static final short MOD = 1;
+    static final short DEL = 2;
+
+    private final UUID txId = UUID.randomUUID();
+
+    private final long timestamp = System.currentTimeMillis();
+
+    private final Map<Long, Change> changes = new LinkedHashMap<>();
+
+    void add(short revisionType, User state) {
+        Change previous = changes.get(state.getId());
+        if (previous == null) {
+            changes.put(state.getId(), new Change(revisionType, state));
+        } else if (previous.revisionType() == ADD && revisionType == DEL) {
+            // created and deleted in the same transaction: nothing to audit
+            changes.remove(state.getId());
+        } else if (previous.revisionType() == ADD) {
+            changes.put(state.getId(), new Change(ADD, state));
+        } else {
+            changes.put(state.getId(), new Change(revisionType == ADD ? MOD : revisionType, state));
+        }
+    }
+
+    UUID getTxId() {
+        return txId;
+    }
+
+    long getTimestamp() {
+        return timestamp;
+    }
+
+    Collection<Change> getChanges() {
+        return changes.values();
+    }
+
+    record Change(short revisionType, User state) {
+    }
+}
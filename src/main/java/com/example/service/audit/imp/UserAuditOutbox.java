@@ -0,0 +1,194 @@
+package com.example.service.audit.imp;
+
+import com.example.repository.RevisionNumberAllocator;
+import com.example.service.audit.IUserAuditOutbox;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves {@code user_audit_outbox} rows into the Envers tables. Each batch is one transaction that locks its rows
+ * with {@code SKIP LOCKED}, so several instances can drain the same outbox and a crash leaves the rows in place.
+ * Flushes run on a thread of their own, never on a request thread or a shared pool.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "user.audit.outbox.enabled", havingValue = "true")
+public class UserAuditOutbox implements IUserAuditOutbox {
+
+    private static final String SELECT_BATCH =
+            "SELECT id, tx_id, revtstmp FROM user_audit_outbox ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String SELECT_REST_OF_TRANSACTION =
+            "SELECT id, tx_id, revtstmp FROM user_audit_outbox WHERE tx_id = ? AND id > ? ORDER BY id FOR UPDATE";
+
+    private static final String HAS_EARLIER_ROWS =
+            "SELECT EXISTS (SELECT 1 FROM user_audit_outbox WHERE tx_id = ? AND id < ?)";
+
+    private static final String INSERT_REVINFO = "INSERT INTO revinfo (rev, revtstmp) VALUES (?, ?)";
+
+    private static final String INSERT_AUDIT =
+            "INSERT INTO service_user_aud (id, rev, revtype, email, first_name, last_name, birth_date, address, " +
+            "phone_number, created_date, last_modified_date, created_by, last_modified_by) " +
+            "SELECT user_id, ?, revtype, email, first_name, last_name, birth_date, address, " +
+            "phone_number, created_date, last_modified_date, created_by, last_modified_by " +
+            "FROM user_audit_outbox WHERE id = ?";
+
+    private static final String DELETE_ROW = "DELETE FROM user_audit_outbox WHERE id = ?";
+
+    private static final RowMapper<OutboxRow> OUTBOX_ROW = (rs, rowNum) ->
+            new OutboxRow(rs.getLong("id"), rs.getObject("tx_id", UUID.class), rs.getLong("revtstmp"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int flushSize;
+
+    private final AtomicLong pending = new AtomicLong();
+
+    private final AtomicBoolean flushing = new AtomicBoolean();
+
+    private final Timer flushTimer;
+
+    private final RevisionNumberAllocator revisionNumbers;
+
+    private final long flushIntervalMs;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "audit-outbox-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public UserAuditOutbox(JdbcTemplate jdbcTemplate,
+                           RevisionNumberAllocator revisionNumbers,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${user.audit.outbox.flush-size}") int flushSize,
+                           @Value("${user.audit.outbox.flush-interval-ms}") long flushIntervalMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.revisionNumbers = revisionNumbers;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.flushSize = flushSize;
+        this.flushIntervalMs = flushIntervalMs;
+
+        Gauge.builder("user.audit.outbox.pending", pending, AtomicLong::get)
+                .description("Audit rows committed to the outbox and not yet written to the audit tables")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("user.audit.outbox.flush")
+                .description("Time to move one batch of outbox rows into the audit tables")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void recordCommitted(int rows) {
+        if (pending.addAndGet(rows) >= flushSize && !flushing.get()) {
+            executor.execute(this::flushPending);
+        }
+    }
+
+    // rows left behind by a previous run, possibly of another instance, are flushed at once
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadPending() {
+        Long rows = jdbcTemplate.queryForObject("SELECT count(*) FROM user_audit_outbox", Long.class);
+        pending.set(rows == null ? 0 : rows);
+        executor.scheduleWithFixedDelay(this::flushPending, 0, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void flushPending() {
+        if (!flushing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int moved;
+            do {
+                moved = flushTimer.record(() -> transactionTemplate.execute(status -> flushBatch()));
+                int rows = moved;
+                pending.updateAndGet(current -> Math.max(0, current - rows));
+            } while (moved > 0);
+        } catch (RuntimeException ex) {
+            log.error("Audit outbox flush failed, the rows stay in the outbox: {}", ex.getMessage(), ex);
+        } finally {
+            flushing.set(false);
+        }
+    }
+
+    private int flushBatch() {
+        List<OutboxRow> rows = jdbcTemplate.query(SELECT_BATCH, OUTBOX_ROW, flushSize);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        Map<UUID, List<OutboxRow>> transactions = new LinkedHashMap<>();
+        for (OutboxRow row : rows) {
+            transactions.computeIfAbsent(row.txId(), txId -> new ArrayList<>()).add(row);
+        }
+        // its first rows are locked by another instance's batch, which takes the rest of it too
+        OutboxRow first = rows.get(0);
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(HAS_EARLIER_ROWS, Boolean.class, first.txId(), first.id()))) {
+            transactions.remove(first.txId());
+        }
+        // a transaction cut off by the limit waits for the next batch, or, when it fills the batch on its own, is
+        // read to the end, so it still gets a single revision
+        OutboxRow last = rows.get(rows.size() - 1);
+        if (rows.size() == flushSize && transactions.containsKey(last.txId())) {
+            if (transactions.size() > 1) {
+                transactions.remove(last.txId());
+            } else {
+                transactions.get(last.txId()).addAll(
+                        jdbcTemplate.query(SELECT_REST_OF_TRANSACTION, OUTBOX_ROW, last.txId(), last.id()));
+            }
+        }
+        if (transactions.isEmpty()) {
+            return 0;
+        }
+
+        List<Object[]> revinfo = new ArrayList<>(transactions.size());
+        List<Object[]> audits = new ArrayList<>(rows.size());
+        List<Object[]> ids = new ArrayList<>(rows.size());
+        for (List<OutboxRow> transaction : transactions.values()) {
+            int rev = revisionNumbers.next();
+            revinfo.add(new Object[]{rev, transaction.get(0).revtstmp()});
+            for (OutboxRow row : transaction) {
+                audits.add(new Object[]{rev, row.id()});
+                ids.add(new Object[]{row.id()});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_REVINFO, revinfo);
+        jdbcTemplate.batchUpdate(INSERT_AUDIT, audits);
+        jdbcTemplate.batchUpdate(DELETE_ROW, ids);
+        return ids.size();
+    }
+
+    private record OutboxRow(long id, UUID txId, long revtstmp) {
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.service.audit.imp;
+
+import com.example.domain.User;
+import com.example.service.audit.IUserAuditOutbox;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stands in for the Envers listeners in the audit-outbox profile: collects the users changed by a transaction
+ * and, after the final flush and before commit, writes them to {@code user_audit_outbox} in one JDBC batch.
+ * The rows commit or roll back with the changes they describe.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "user.audit.outbox.enabled", havingValue = "true")
+public class UserAuditOutboxListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final String INSERT_OUTBOX =
+            "INSERT INTO user_audit_outbox (tx_id, revtstmp, revtype, user_id, email, first_name, last_name, " +
+            "birth_date, address, phone_number, created_date, last_modified_date, created_by, last_modified_by) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final IUserAuditOutbox userAuditOutbox;
+
+    private final Map<SharedSessionContractImplementor, OutboxProcess> processes = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof User user) {
+            changesOf(event.getSession()).add(UserAuditChanges.ADD, snapshot(user));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof User user) {
+            changesOf(event.getSession()).add(UserAuditChanges.MOD, snapshot(user));
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof User user) {
+            // like Envers without store_data_at_delete, a deletion only records the id
+            User deleted = new User();
+            deleted.setId(user.getId());
+            changesOf(event.getSession()).add(UserAuditChanges.DEL, deleted);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private UserAuditChanges changesOf(EventSource session) {
+        return processes.computeIfAbsent(session, key -> {
+            OutboxProcess process = new OutboxProcess();
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) process);
+            session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) process);
+            return process;
+        }).changes;
+    }
+
+    // the entity may change again later in the transaction, so keep the state as flushed
+    private static User snapshot(User user) {
+        User state = new User()
+                .setEmail(user.getEmail())
+                .setFirstName(user.getFirstName())
+                .setLastName(user.getLastName())
+                .setBirthDate(user.getBirthDate())
+                .setAddress(user.getAddress())
+                .setPhoneNumber(user.getPhoneNumber());
+        state.setId(user.getId());
+        state.setCreatedDate(user.getCreatedDate());
+        state.setLastModifiedDate(user.getLastModifiedDate());
+        state.setCreatedBy(user.getCreatedBy());
+        state.setLastModifiedBy(user.getLastModifiedBy());
+        return state;
+    }
+
+    private final class OutboxProcess implements BeforeTransactionCompletionProcess, AfterTransactionCompletionProcess {
+
+        private final UserAuditChanges changes = new UserAuditChanges();
+
+        private int written;
+
+        @Override
+        public void doBeforeTransactionCompletion(SessionImplementor session) {
+            if (changes.getChanges().isEmpty()) {
+                return;
+            }
+            session.doWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(INSERT_OUTBOX)) {
+                    for (UserAuditChanges.Change change : changes.getChanges()) {
+                        User state = change.state();
+                        statement.setObject(1, changes.getTxId());
+                        statement.setLong(2, changes.getTimestamp());
+                        statement.setShort(3, change.revisionType());
+                        statement.setLong(4, state.getId());
+                        statement.setString(5, state.getEmail());
+                        statement.setString(6, state.getFirstName());
+                        statement.setString(7, state.getLastName());
+                        statement.setObject(8, state.getBirthDate() == null ? null : new java.sql.Date(state.getBirthDate().getTime()), Types.DATE);
+                        statement.setString(9, state.getAddress());
+                        statement.setString(10, state.getPhoneNumber());
+                        statement.setObject(11, state.getCreatedDate(), Types.BIGINT);
+                        statement.setObject(12, state.getLastModifiedDate(), Types.BIGINT);
+                        statement.setString(13, state.getCreatedBy());
+                        statement.setString(14, state.getLastModifiedBy());
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                }
+            });
+            written = changes.getChanges().size();
+        }
+
+        @Override
+        public void doAfterTransactionCompletion(boolean success, SharedSessionContractImplementor session) {
+            processes.remove(session);
+            if (success && written > 0) {
+                userAuditOutbox.recordCommitted(written);
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.service.email;
+
+/**
+ * In-memory index of the emails in use, answering whether an email can be taken without a database round-trip.
+ */
+public interface IEmailMembershipFilter {
+
+    /**
+     * Check whether a user might have this email.
+     *
+     * @param email The email to check.
+     * @return {@code false} if no user has this email, {@code true} if one might, or if the filter is not loaded yet.
+     */
+    boolean mightExist(String email);
+
+    /**
+     * Record an email that is now in use.
+     *
+     * @param email The email of a created or updated user.
+     */
+    void add(String email);
+
+    /**
+     * Record an email that is no longer in use. It keeps matching until the next rebuild.
+     *
+     * @param email The email of a deleted or updated user.
+     */
+    void remove(String email);
+
+    /**
+     * Record that {@link #mightExist(String)} answered {@code true} for an email the database did not have.
+     */
+    void recordFalsePositive();
+
+    /**
+     * Reload the filter from the database.
+     */
+    void rebuild();
+}
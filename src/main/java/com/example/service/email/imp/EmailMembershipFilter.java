@@ -0,0 +1,157 @@
+package com.example.service.email.imp;
+
+import com.example.repository.UserRepository;
+import com.example.service.email.IEmailMembershipFilter;
+import com.example.util.filter.BloomFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter over {@code service_user.email}, loaded at startup and kept up to date by {@code UserService}.
+ * Bloom filters cannot forget, so removed emails keep matching until the scheduled rebuild drops them.
+ * An email written by another instance may be missed until then, which the unique constraint on email still catches.
+ */
+@Slf4j
+@Service
+public class EmailMembershipFilter implements IEmailMembershipFilter {
+
+    private final UserRepository userRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final long expectedInsertions;
+
+    private final double fpp;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private final AtomicLong removalsSinceRebuild = new AtomicLong();
+
+    private final AtomicLong positives = new AtomicLong();
+
+    private final AtomicLong falsePositives = new AtomicLong();
+
+    private final Timer rebuildTimer;
+
+    // null until the first load, so every email is checked against the database meanwhile
+    private volatile BloomFilter filter;
+
+    // the filter being rebuilt, which also receives the emails added during the rebuild
+    private volatile BloomFilter building;
+
+    public EmailMembershipFilter(UserRepository userRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${user.email-filter.expected-insertions}") long expectedInsertions,
+                                 @Value("${user.email-filter.fpp}") double fpp) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.expectedInsertions = expectedInsertions;
+        this.fpp = fpp;
+
+        Gauge.builder("user.email.filter.size", this, self -> self.filter == null ? 0 : self.filter.getInsertions())
+                .description("Emails put into the filter since the last rebuild")
+                .register(meterRegistry);
+        Gauge.builder("user.email.filter.fpp.expected", this, self -> self.filter == null ? 0 : self.filter.expectedFpp())
+                .description("False-positive probability given the bits set")
+                .register(meterRegistry);
+        Gauge.builder("user.email.filter.fpp.observed", this, EmailMembershipFilter::observedFpp)
+                .description("Share of positive answers the database did not confirm")
+                .register(meterRegistry);
+        this.rebuildTimer = Timer.builder("user.email.filter.rebuild")
+                .description("Time to reload the filter from the database")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean mightExist(String email) {
+        BloomFilter current = filter;
+        if (current == null || current.mightContain(email)) {
+            positives.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void add(String email) {
+        BloomFilter next = building;
+        if (next != null) {
+            next.put(email);
+        }
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(email);
+        }
+    }
+
+    @Override
+    public void remove(String email) {
+        removalsSinceRebuild.incrementAndGet();
+    }
+
+    @Override
+    public void recordFalsePositive() {
+        falsePositives.incrementAndGet();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Override
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            rebuildTimer.record(this::load);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${user.email-filter.rebuild-interval-ms}",
+            initialDelayString = "${user.email-filter.rebuild-interval-ms}")
+    public void rebuildIfStale() {
+        BloomFilter current = filter;
+        if (removalsSinceRebuild.get() > 0 || current == null || current.expectedFpp() > 2 * fpp) {
+            rebuild();
+        }
+    }
+
+    private void load() {
+        long userCount = userRepository.count();
+        // room to grow before the false-positive rate drifts above the target
+        BloomFilter next = BloomFilter.create(Math.max(userCount * 2, expectedInsertions), fpp);
+        removalsSinceRebuild.set(0);
+        building = next;
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<String> emails = userRepository.streamAllEmails()) {
+                    emails.forEach(next::put);
+                }
+            });
+            filter = next;
+            positives.set(0);
+            falsePositives.set(0);
+        } finally {
+            building = null;
+        }
+        log.info("Email filter loaded with {} emails in {} bits", next.getInsertions(), next.getNumBits());
+    }
+
+    private double observedFpp() {
+        long positiveCount = positives.get();
+        return positiveCount == 0 ? 0 : (double) falsePositives.get() / positiveCount;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.service.user;
+
+import com.example.domain.User;
+import lombok.Getter;
+
+import java.util.*;
+
+/**
+ * Outcome of a batch creation, keyed by the position of each user in the submitted list.
+ */
+@Getter
+public class BatchCreateResult {
+
+    private final Map<Integer, User> created = new LinkedHashMap<>();
+
+    private final Map<Integer, List<String>> rejected = new TreeMap<>();
+
+    public void created(int index, User user) {
+        created.put(index, user);
+    }
+
+    public void rejected(int index, String error) {
+        rejected.computeIfAbsent(index, key -> new ArrayList<>()).add(error);
+    }
+}
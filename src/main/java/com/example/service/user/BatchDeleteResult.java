@@ -0,0 +1,19 @@
+package com.example.service.user;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk delete.
+ */
+@Getter
+@RequiredArgsConstructor
+public class BatchDeleteResult {
+
+    private final long deleted;
+
+    // requested IDs that had no user; always empty for a range
+    private final List<Long> missingIds;
+}
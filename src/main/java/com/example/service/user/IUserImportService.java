@@ -0,0 +1,38 @@
+package com.example.service.user;
+
+import com.example.exception.imports.ImportJobNotFoundException;
+import com.example.exception.imports.ImportQueueFullException;
+import com.example.util.imports.ImportFormat;
+import org.springframework.lang.NonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.UUID;
+
+public interface IUserImportService {
+
+    /**
+     * Start importing users from an uploaded file. The upload is copied to a temporary file first, then read in
+     * the background one record at a time. Each record is validated like a created user, and records are created
+     * in transactions of {@code user.import.batch-size}.
+     *
+     * @param format The format of the upload.
+     * @param upload The uploaded file, read to the end before this returns.
+     * @return The queued job.
+     * @throws ImportQueueFullException If {@code user.import.max-concurrent-jobs} jobs are running and
+     *                                  {@code user.import.max-queued-jobs} more are waiting.
+     * @throws IOException If the upload cannot be read or stored.
+     */
+    @NonNull
+    UserImportJob start(ImportFormat format, InputStream upload) throws IOException;
+
+    /**
+     * Get an import job started within the retention period.
+     *
+     * @param jobId The ID of the job.
+     * @return The job with its progress.
+     * @throws ImportJobNotFoundException If there is no such job.
+     */
+    @NonNull
+    UserImportJob getJob(UUID jobId);
+}
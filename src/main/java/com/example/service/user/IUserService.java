@@ -1,16 +1,36 @@
 package com.example.service.user;
 
 import com.example.domain.User;
+import com.example.exception.user.InvalidBirthDateRangeException;
+import com.example.exception.user.InvalidUserIdsException;
 import com.example.exception.user.UserWithThisEmailAlreadyExistsException;
+import com.example.exception.user.UserVersionMismatchException;
 import com.example.exception.user.UserWithThisIdNotFoundException;
+import com.example.repository.projection.UserRangeVersion;
+import com.example.repository.projection.UserRow;
+import com.example.util.pagination.UserCursor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.lang.NonNull;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
 
 public interface IUserService {
 
+    /**
+     * Get a user by ID. Users are cached by ID until they are updated or deleted.
+     *
+     * @param userId The ID of the user.
+     * @return The user.
+     * @throws UserWithThisIdNotFoundException If no user with the given ID is found.
+     */
+    @NonNull
+    User getById(Long userId);
+
     /**
      * Create a new user.
      *
@@ -22,29 +42,44 @@ public interface IUserService {
     @Transactional
     User create(User user);
 
+    /**
+     * Create several users at once. Users whose email is already taken, or repeated earlier in the batch,
+     * are rejected one by one instead of failing the whole batch.
+     *
+     * @param users The users to create.
+     * @return The created and rejected users, keyed by their position in {@code users}.
+     */
+    @NonNull
+    @Transactional
+    BatchCreateResult createAll(List<User> users);
+
     /**
      * Update all user information.
      *
-     * @param user The user to update.
+     * @param user            The user to update.
+     * @param expectedVersion The last modified date the caller last saw, or {@code null} to update unconditionally.
      * @return The updated user.
      * @throws UserWithThisIdNotFoundException        If no user with the given ID is found.
      * @throws UserWithThisEmailAlreadyExistsException If a user with the given email already exists.
+     * @throws UserVersionMismatchException            If the user was modified after the expected version.
      */
     @NonNull
     @Transactional
-    User update(User user);
+    User update(User user, Long expectedVersion);
 
     /**
      * Update some fields of a user.
      *
-     * @param user The user with updated fields.
+     * @param user            The user with updated fields.
+     * @param expectedVersion The last modified date the caller last saw, or {@code null} to update unconditionally.
      * @return The updated user.
      * @throws UserWithThisIdNotFoundException        If no user with the given ID is found.
      * @throws UserWithThisEmailAlreadyExistsException If a user with the given email already exists.
+     * @throws UserVersionMismatchException            If the user was modified after the expected version.
      */
     @NonNull
     @Transactional
-    User updateSomeFields(User user);
+    User updateSomeFields(User user, Long expectedVersion);
 
     /**
      * Delete a user by ID.
@@ -55,6 +90,29 @@ public interface IUserService {
     @Transactional
     void delete(Long userId);
 
+    /**
+     * Delete several users at once with set-based statements, writing their audit rows in bulk.
+     *
+     * @param userIds The IDs of the users to delete.
+     * @return The number of deleted users and the IDs that had no user.
+     * @throws InvalidUserIdsException If an ID is null or there are more than {@code user.delete.max-ids}.
+     */
+    @NonNull
+    @Transactional
+    BatchDeleteResult deleteAll(Collection<Long> userIds);
+
+    /**
+     * Delete all users born within a range, like {@link #deleteAll(Collection)}.
+     *
+     * @param from The start date of the range.
+     * @param to   The end date of the range.
+     * @return The number of deleted users.
+     * @throws InvalidBirthDateRangeException If {@code from} is after {@code to}.
+     */
+    @NonNull
+    @Transactional
+    BatchDeleteResult deleteByBirthDateBetween(Date from, Date to);
+
     /**
      * Find users by birth date within a range.
      *
@@ -62,10 +120,70 @@ public interface IUserService {
      * @param to   The end date of the range.
      * @param size The page size.
      * @param page The page number.
-     * @return A page of users.
+     * @return A page of users, read without loading entities.
      */
     @NonNull
-    Page<User> findByBirthDateBetween(Date from, Date to, int size, int page);
+    @Transactional(readOnly = true)
+    Page<UserRow> findByBirthDateBetween(Date from, Date to, int size, int page);
 
+    /**
+     * Find users by birth date within a range without counting the whole range.
+     *
+     * @param from The start date of the range.
+     * @param to   The end date of the range.
+     * @param size The page size.
+     * @param page The page number.
+     * @return A slice of users, telling whether more users follow.
+     */
+    @NonNull
+    @Transactional(readOnly = true)
+    Slice<UserRow> findSliceByBirthDateBetween(Date from, Date to, int size, int page);
+
+    /**
+     * Estimate the number of users with a birth date within a range. The count is cached for a while,
+     * so it may lag behind recent changes.
+     *
+     * @param from The start date of the range.
+     * @param to   The end date of the range.
+     * @return The estimated number of users.
+     */
+    @Transactional(readOnly = true)
+    long estimateCountByBirthDateBetween(Date from, Date to);
 
+    /**
+     * Get a version of the users with a birth date within a range, from one index-only query.
+     *
+     * @param from The start date of the range.
+     * @param to   The end date of the range.
+     * @return The latest modification and the number of users in the range.
+     */
+    @NonNull
+    @Transactional(readOnly = true)
+    UserRangeVersion getVersionByBirthDateBetween(Date from, Date to);
+
+    /**
+     * Find users by birth date within a range, ordered by birth date and ID, starting right after a cursor.
+     * The cost of a page does not depend on how many pages were read before it.
+     *
+     * @param from  The start date of the range.
+     * @param to    The end date of the range.
+     * @param after The last user of the previous page, or {@code null} for the first page.
+     * @param size  The page size.
+     * @return A slice of users, telling whether more users follow.
+     */
+    @NonNull
+    @Transactional(readOnly = true)
+    Slice<UserRow> findByBirthDateBetweenAfter(Date from, Date to, UserCursor after, int size);
+
+    /**
+     * Pass every user with a birth date within a range to an action, ordered by birth date and ID.
+     * Users are read through a database cursor as rows, never as managed entities, so memory use does not grow with
+     * the range.
+     *
+     * @param from   The start date of the range.
+     * @param to     The end date of the range.
+     * @param action The action to run for each user, in the reading transaction.
+     */
+    @Transactional(readOnly = true)
+    void exportByBirthDateBetween(Date from, Date to, Consumer<UserRow> action);
 }
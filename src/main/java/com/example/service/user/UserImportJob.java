@@ -0,0 +1,72 @@
+package com.example.service.user;
+
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of a background import, updated by the import worker and read by any request thread.
+ */
+@Getter
+public class UserImportJob {
+
+    public enum Status {QUEUED, RUNNING, COMPLETED, FAILED}
+
+    private final UUID id = UUID.randomUUID();
+
+    // rejected records as NDJSON lines of {"index", "errors"}
+    private final Path errorFile;
+
+    private final AtomicLong created = new AtomicLong();
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    private volatile Status status = Status.QUEUED;
+
+    private volatile Instant startedAt;
+
+    private volatile Instant finishedAt;
+
+    private volatile String error;
+
+    public UserImportJob(Path errorFile) {
+        this.errorFile = errorFile;
+    }
+
+    public long getProcessed() {
+        return created.get() + rejected.get();
+    }
+
+    /**
+     * @return Records processed per second since the job started, up to now or to the end of the job.
+     */
+    public double getThroughput() {
+        Instant start = startedAt;
+        if (start == null) {
+            return 0;
+        }
+        Instant end = finishedAt == null ? Instant.now() : finishedAt;
+        long millis = Math.max(1, Duration.between(start, end).toMillis());
+        return getProcessed() * 1000.0 / millis;
+    }
+
+    public void started() {
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    public void completed() {
+        finishedAt = Instant.now();
+        status = Status.COMPLETED;
+    }
+
+    public void failed(String message) {
+        error = message;
+        finishedAt = Instant.now();
+        status = Status.FAILED;
+    }
+}
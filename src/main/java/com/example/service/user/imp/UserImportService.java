@@ -0,0 +1,284 @@
+package com.example.service.user.imp;
+
+import com.example.domain.User;
+import com.example.dto.user.BatchRowDTO;
+import com.example.exception.imports.ImportJobNotFoundException;
+import com.example.exception.imports.ImportQueueFullException;
+import com.example.exception.imports.ImportUploadTooLargeException;
+import com.example.mapper.user.IUserMapper;
+import com.example.service.user.BatchCreateResult;
+import com.example.service.user.IUserImportService;
+import com.example.service.user.IUserService;
+import com.example.service.user.UserImportJob;
+import com.example.util.handler.UserDTOValidator;
+import com.example.util.imports.ImportFormat;
+import com.example.util.imports.ImportRecord;
+import com.example.util.imports.UserImportReader;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs imports on a small dedicated pool. A job holds at most one batch of records in memory:
+ * the next batch is only read once the previous one is committed. Uploads and single records are capped,
+ * so neither the spool file nor one malformed record can grow without bound, and so is the number of jobs
+ * running or waiting for a thread.
+ */
+@Slf4j
+@Service
+public class UserImportService implements IUserImportService {
+
+    private final IUserService userService;
+
+    private final IUserMapper userMapper;
+
+    private final UserDTOValidator userDTOValidator;
+
+    private final ObjectMapper objectMapper;
+
+    private final int batchSize;
+
+    private final int maxRecordLength;
+
+    private final DataSize maxUploadSize;
+
+    private final ExecutorService executor;
+
+    // jobs running or queued; taken before the upload is spooled, given back when the job ends
+    private final Semaphore acceptedJobs;
+
+    private final int maxAcceptedJobs;
+
+    private final Cache<UUID, UserImportJob> jobs;
+
+    private final Counter createdCounter;
+
+    private final Counter rejectedCounter;
+
+    public UserImportService(IUserService userService,
+                             IUserMapper userMapper,
+                             UserDTOValidator userDTOValidator,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${user.import.batch-size}") int batchSize,
+                             @Value("${user.import.max-concurrent-jobs}") int maxConcurrentJobs,
+                             @Value("${user.import.max-queued-jobs}") int maxQueuedJobs,
+                             @Value("${user.import.retention-hours}") long retentionHours,
+                             @Value("${user.import.max-record-length}") int maxRecordLength,
+                             @Value("${user.import.max-upload-size}") DataSize maxUploadSize) {
+        this.userService = userService;
+        this.userMapper = userMapper;
+        this.userDTOValidator = userDTOValidator;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxRecordLength = maxRecordLength;
+        this.maxUploadSize = maxUploadSize;
+        this.executor = Executors.newFixedThreadPool(maxConcurrentJobs);
+        this.maxAcceptedJobs = maxConcurrentJobs + maxQueuedJobs;
+        this.acceptedJobs = new Semaphore(maxAcceptedJobs);
+        // finished jobs stay queryable for a while, then their error files go too; a running job never expires
+        this.jobs = Caffeine.newBuilder()
+                .expireAfter(new FinishedJobExpiry(Duration.ofHours(retentionHours)))
+                .<UUID, UserImportJob>removalListener((id, job, cause) -> {
+                    if (cause != RemovalCause.REPLACED) {
+                        deleteQuietly(job.getErrorFile());
+                    }
+                })
+                .build();
+
+        this.createdCounter = Counter.builder("user.import.records")
+                .tag("outcome", "created")
+                .description("Imported records")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("user.import.records")
+                .tag("outcome", "rejected")
+                .description("Imported records")
+                .register(meterRegistry);
+    }
+
+    @NonNull
+    @Override
+    public UserImportJob start(ImportFormat format, InputStream upload) throws IOException {
+        if (!acceptedJobs.tryAcquire()) {
+            throw new ImportQueueFullException(maxAcceptedJobs);
+        }
+        // spooled to disk so the request returns as soon as the upload is in, whatever its size
+        Path uploadFile = null;
+        try {
+            uploadFile = Files.createTempFile("user-import-", ".upload");
+            try (OutputStream out = Files.newOutputStream(uploadFile)) {
+                spool(upload, out);
+            }
+
+            UserImportJob job = new UserImportJob(Files.createTempFile("user-import-", ".errors.ndjson"));
+            jobs.put(job.getId(), job);
+            Path spooled = uploadFile;
+            executor.execute(() -> run(job, format, spooled));
+            return job;
+        } catch (IOException | RuntimeException ex) {
+            if (uploadFile != null) {
+                deleteQuietly(uploadFile);
+            }
+            acceptedJobs.release();
+            throw ex;
+        }
+    }
+
+    @NonNull
+    @Override
+    public UserImportJob getJob(UUID jobId) {
+        UserImportJob job = jobs.getIfPresent(jobId);
+        if (job == null) {
+            throw new ImportJobNotFoundException(jobId);
+        }
+        return job;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void spool(InputStream upload, OutputStream out) throws IOException {
+        byte[] buffer = new byte[8192];
+        long spooled = 0;
+        int read;
+        while ((read = upload.read(buffer)) != -1) {
+            spooled += read;
+            if (spooled > maxUploadSize.toBytes()) {
+                throw new ImportUploadTooLargeException(maxUploadSize);
+            }
+            out.write(buffer, 0, read);
+        }
+    }
+
+    private void run(UserImportJob job, ImportFormat format, Path uploadFile) {
+        job.started();
+        boolean completed = false;
+        Exception failure = null;
+        // flushed once per batch by createBatch, not after every rejected record
+        ObjectWriter errorWriter = objectMapper.writerFor(BatchRowDTO.class)
+                .withRootValueSeparator("")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (UserImportReader reader = format.reader(objectMapper, Files.newInputStream(uploadFile), maxRecordLength);
+             JsonGenerator errors = objectMapper.getFactory().createGenerator(Files.newOutputStream(job.getErrorFile()))) {
+            List<User> batch = new ArrayList<>(batchSize);
+            List<Integer> indexes = new ArrayList<>(batchSize);
+
+            ImportRecord record;
+            while ((record = reader.read()) != null) {
+                List<String> recordErrors = validate(record);
+                if (recordErrors.isEmpty()) {
+                    batch.add(userMapper.toModel(record.user()));
+                    indexes.add(record.index());
+                } else {
+                    reject(job, errorWriter, errors, record.index(), recordErrors);
+                }
+                if (batch.size() == batchSize) {
+                    createBatch(job, errorWriter, errors, batch, indexes);
+                }
+            }
+            createBatch(job, errorWriter, errors, batch, indexes);
+            completed = true;
+        } catch (RuntimeException | IOException ex) {
+            log.error("User import {} failed after {} records: {}", job.getId(), job.getProcessed(), ex.getMessage(), ex);
+            failure = ex;
+        } finally {
+            deleteQuietly(uploadFile);
+            // the slot is free before the job reads as finished, so a client that waited for it can start the next
+            acceptedJobs.release();
+            if (completed) {
+                job.completed();
+            } else if (failure != null) {
+                job.failed(failure.getMessage());
+            }
+            // written again so the retention is counted from now
+            jobs.put(job.getId(), job);
+        }
+    }
+
+    private List<String> validate(ImportRecord record) {
+        if (record.error() != null) {
+            return List.of(record.error());
+        }
+        return userDTOValidator.validate(record.user());
+    }
+
+    // one transaction per batch; duplicate emails are found with one query per JDBC batch, see createAll
+    private void createBatch(UserImportJob job, ObjectWriter errorWriter, JsonGenerator errors,
+                             List<User> batch, List<Integer> indexes) throws IOException {
+        if (!batch.isEmpty()) {
+            BatchCreateResult result = userService.createAll(batch);
+            job.getCreated().addAndGet(result.getCreated().size());
+            createdCounter.increment(result.getCreated().size());
+            for (Map.Entry<Integer, List<String>> rejected : result.getRejected().entrySet()) {
+                reject(job, errorWriter, errors, indexes.get(rejected.getKey()), rejected.getValue());
+            }
+            batch.clear();
+            indexes.clear();
+        }
+        // whole lines only, so the error stream can be read while the job runs
+        errors.flush();
+    }
+
+    private void reject(UserImportJob job, ObjectWriter errorWriter, JsonGenerator errors,
+                        int index, List<String> recordErrors) throws IOException {
+        errorWriter.writeValue(errors, new BatchRowDTO().setIndex(index).setErrors(recordErrors));
+        errors.writeRaw('\n');
+        job.getRejected().incrementAndGet();
+        rejectedCounter.increment();
+    }
+
+    private record FinishedJobExpiry(Duration retention) implements Expiry<UUID, UserImportJob> {
+
+        @Override
+        public long expireAfterCreate(UUID id, UserImportJob job, long currentTime) {
+            return job.getFinishedAt() == null ? Long.MAX_VALUE : retention.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(UUID id, UserImportJob job, long currentTime, long currentDuration) {
+            return expireAfterCreate(id, job, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(UUID id, UserImportJob job, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("Could not delete {}: {}", file, ex.getMessage());
+        }
+    }
+}
@@ -1,74 +1,340 @@
 package com.example.service.user.imp;
 
+import com.example.config.CacheConfig;
 import com.example.domain.User;
+import com.example.exception.user.InvalidBirthDateRangeException;
+import com.example.exception.user.InvalidUserIdsException;
 import com.example.exception.user.UserWithThisEmailAlreadyExistsException;
+import com.example.exception.user.UserVersionMismatchException;
 import com.example.exception.user.UserWithThisIdNotFoundException;
-import com.example.mapper.util.FieldsUpdaterMapper;
 import com.example.repository.UserRepository;
+import com.example.repository.projection.DeletedUser;
+import com.example.repository.projection.UserPatchResult;
+import com.example.repository.projection.UserRangeVersion;
+import com.example.repository.projection.UserRow;
+import com.example.service.audit.IUserAuditOutbox;
+import com.example.service.email.IEmailMembershipFilter;
+import com.example.service.user.BatchCreateResult;
+import com.example.service.user.BatchDeleteResult;
 import com.example.service.user.IUserService;
+import com.example.util.datasource.ReadReplicas;
+import com.example.util.etag.UserETags;
+import com.example.util.pagination.UserCursor;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.Date;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class UserService implements IUserService {
 
+    // PostgreSQL unique_violation
+    private static final String UNIQUE_VIOLATION = "23505";
+
     private final UserRepository userRepository;
 
-    private final FieldsUpdaterMapper fieldsUpdaterMapper;
+    private final EntityManager entityManager;
+
+    private final IEmailMembershipFilter emailMembershipFilter;
+
+    private final ObjectProvider<IUserAuditOutbox> userAuditOutbox;
+
+    private final CacheManager cacheManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}")
+    private int batchSize;
+
+    @Value("${user.delete.chunk-size}")
+    private int deleteChunkSize;
+
+    @Value("${user.delete.max-ids}")
+    private int deleteMaxIds;
+
+    // from the primary: a lagging replica would put a stale user in the cache after the write's eviction. Not
+    // transactional, so a read that started before a write committed can still put the old row back; the users
+    // cache evicts again user.cache.reevict-delay-ms after each eviction to bound that
+    @NonNull
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "#userId")
+    @Override
+    public User getById(Long userId) {
+        return ReadReplicas.readFromPrimary(() -> getUserById(userId));
+    }
 
     @NonNull
     @Transactional
     @Override
     public User create(User user) {
-        checkIfEmailExists(user.getEmail());
+        // most signups use fresh emails, which the filter rules out without a query
+        if (emailMembershipFilter.mightExist(user.getEmail())) {
+            checkIfEmailExists(user.getEmail());
+            emailMembershipFilter.recordFalsePositive();
+        }
         user.setId(null);
-        return userRepository.save(user);
+        User createdUser = saveWithUniqueEmail(user);
+        emailMembershipFilter.add(createdUser.getEmail());
+        return createdUser;
     }
 
     @NonNull
     @Transactional
     @Override
-    public User update(User user) {
-        User existingUser = getUserById(user.getId());
-        checkIfEmailExistsAndNotCurrentId(user.getEmail(), user.getId());
-        return userRepository.save(user);
+    public BatchCreateResult createAll(List<User> users) {
+        BatchCreateResult result = new BatchCreateResult();
+        Set<String> batchEmails = new HashSet<>();
+
+        for (int from = 0; from < users.size(); from += batchSize) {
+            List<User> chunk = users.subList(from, Math.min(from + batchSize, users.size()));
+            Set<String> existingEmails = userRepository.findExistingEmails(chunk.stream().map(User::getEmail).toList());
+            List<User> toSave = new ArrayList<>(chunk.size());
+
+            for (int i = 0; i < chunk.size(); i++) {
+                User user = chunk.get(i);
+                if (existingEmails.contains(user.getEmail()) || !batchEmails.add(user.getEmail())) {
+                    result.rejected(from + i, UserWithThisEmailAlreadyExistsException.messageFor(user.getEmail()));
+                    continue;
+                }
+                user.setId(null);
+                toSave.add(user);
+                result.created(from + i, user);
+            }
+
+            // one JDBC batch per chunk, then detach it so the persistence context stays small
+            userRepository.saveAll(toSave);
+            userRepository.flush();
+            entityManager.clear();
+            toSave.forEach(user -> emailMembershipFilter.add(user.getEmail()));
+        }
+        return result;
     }
 
     @NonNull
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#user.id")
     @Override
-    public User updateSomeFields(User user) {
-        User existingUser = getUserById(user.getId());
+    public User update(User user, Long expectedVersion) {
+        User existingUser = getUserByIdAtVersion(user.getId(), expectedVersion);
+        String previousEmail = existingUser.getEmail();
         checkIfEmailExistsAndNotCurrentId(user.getEmail(), user.getId());
-        return userRepository.save(fieldsUpdaterMapper.updateFields(existingUser, user));
+        User updatedUser = userRepository.save(user);
+        replaceEmail(previousEmail, updatedUser.getEmail());
+        return updatedUser;
     }
 
+    @NonNull
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#user.id")
+    @Override
+    public User updateSomeFields(User user, Long expectedVersion) {
+        if (!hasFieldsToUpdate(user)) {
+            return getUserByIdAtVersion(user.getId(), expectedVersion);
+        }
+
+        // one statement: the unique constraint checks the email and the returned row tells 404 from 412
+        UserPatchResult result;
+        try {
+            result = userRepository.patch(user, expectedVersion)
+                    .orElseThrow(() -> new UserWithThisIdNotFoundException(user.getId()));
+        } catch (DuplicateKeyException e) {
+            throw new UserWithThisEmailAlreadyExistsException();
+        }
+        if (result.user() == null) {
+            throw new UserVersionMismatchException(user.getId());
+        }
+        recordOutboxRowsOnCommit(1);
+        replaceEmail(result.previousEmail(), result.user().getEmail());
+        return result.user();
+    }
+
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId")
     @Override
     public void delete(Long userId) {
-        userRepository.delete(getUserById(userId));
+        User existingUser = getUserById(userId);
+        userRepository.delete(existingUser);
+        emailMembershipFilter.remove(existingUser.getEmail());
     }
 
+    @NonNull
+    @Transactional
+    @Override
+    public BatchDeleteResult deleteAll(Collection<Long> userIds) {
+        if (userIds.size() > deleteMaxIds) {
+            throw new InvalidUserIdsException("At most " + deleteMaxIds + " user IDs can be deleted at once");
+        }
+        // List.of(...).contains(null) would itself throw
+        if (userIds.stream().anyMatch(Objects::isNull)) {
+            throw new InvalidUserIdsException("User IDs must not be null");
+        }
+        if (userIds.isEmpty()) {
+            return new BatchDeleteResult(0, List.of());
+        }
+        Set<Long> missingIds = new LinkedHashSet<>(userIds);
+        List<DeletedUser> deleted = userRepository.bulkDeleteByIds(missingIds, deleteChunkSize);
+        for (DeletedUser user : deleted) {
+            missingIds.remove(user.id());
+        }
+        forgetDeleted(deleted);
+        return new BatchDeleteResult(deleted.size(), new ArrayList<>(missingIds));
+    }
 
     @NonNull
+    @Transactional
     @Override
-    public Page<User> findByBirthDateBetween(Date from, Date to, int size, int page) {
+    public BatchDeleteResult deleteByBirthDateBetween(Date from, Date to) {
+        if (from.after(to)) {
+            throw new InvalidBirthDateRangeException(from, to);
+        }
+        List<DeletedUser> deleted = userRepository.bulkDeleteByBirthDateBetween(from, to, deleteChunkSize);
+        forgetDeleted(deleted);
+        return new BatchDeleteResult(deleted.size(), List.of());
+    }
+
+
+    @NonNull
+    @Transactional(readOnly = true)
+    @Override
+    public Page<UserRow> findByBirthDateBetween(Date from, Date to, int size, int page) {
         return userRepository.findByBirthDateBetween(from, to, PageRequest.of(page, size));
     }
 
+    @NonNull
+    @Transactional(readOnly = true)
+    @Override
+    public Slice<UserRow> findSliceByBirthDateBetween(Date from, Date to, int size, int page) {
+        return userRepository.findSliceByBirthDateBetween(from, to, PageRequest.of(page, size));
+    }
+
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.USER_COUNT_BY_BIRTH_DATE_RANGE)
+    @Override
+    public long estimateCountByBirthDateBetween(Date from, Date to) {
+        return userRepository.countByBirthDateBetween(from, to);
+    }
+
+    @NonNull
+    @Transactional(readOnly = true)
+    @Override
+    public UserRangeVersion getVersionByBirthDateBetween(Date from, Date to) {
+        return userRepository.findVersionByBirthDateBetween(from, to);
+    }
+
+    @NonNull
+    @Transactional(readOnly = true)
+    @Override
+    public Slice<UserRow> findByBirthDateBetweenAfter(Date from, Date to, UserCursor after, int size) {
+        // one extra row tells whether there is a next page without counting
+        Pageable limit = PageRequest.ofSize(size + 1);
+        List<UserRow> users = after == null
+                ? userRepository.findByBirthDateBetweenOrderByBirthDateAscIdAsc(from, to, limit)
+                : userRepository.findByBirthDateBetweenAfter(from, to, after.getBirthDate(), after.getId(), limit);
+
+        boolean hasNext = users.size() > size;
+        return new SliceImpl<>(hasNext ? users.subList(0, size) : users, PageRequest.ofSize(size), hasNext);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void exportByBirthDateBetween(Date from, Date to, Consumer<UserRow> action) {
+        try (Stream<UserRow> users = userRepository.streamByBirthDateBetween(from, to)) {
+            users.forEach(action);
+        }
+    }
+
+    // with an expected version the row stays locked until commit, so no other write can slip in after the check
+    private User getUserByIdAtVersion(Long userId, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return getUserById(userId);
+        }
+        User existingUser = userRepository.findForUpdateById(userId)
+                .orElseThrow(() -> new UserWithThisIdNotFoundException(userId));
+        if (expectedVersion != UserETags.versionOf(existingUser)) {
+            throw new UserVersionMismatchException(userId);
+        }
+        return existingUser;
+    }
+
+    private static boolean hasFieldsToUpdate(User user) {
+        return user.getEmail() != null || user.getFirstName() != null || user.getLastName() != null
+                || user.getBirthDate() != null || user.getAddress() != null || user.getPhoneNumber() != null;
+    }
+
+    // plain SQL writes its outbox rows itself, without the Hibernate listener that would report them
+    private void recordOutboxRowsOnCommit(int rows) {
+        userAuditOutbox.ifAvailable(outbox -> TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        outbox.recordCommitted(rows);
+                    }
+                }));
+    }
+
+    private void forgetDeleted(List<DeletedUser> deleted) {
+        // the cache manager is transaction-aware, so these evictions wait for the commit
+        Cache users = cacheManager.getCache(CacheConfig.USERS);
+        for (DeletedUser user : deleted) {
+            if (users != null) {
+                users.evict(user.id());
+            }
+            emailMembershipFilter.remove(user.email());
+        }
+        if (!deleted.isEmpty()) {
+            recordOutboxRowsOnCommit(deleted.size());
+        }
+    }
+
     private User getUserById(Long userId) {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new UserWithThisIdNotFoundException(userId));
     }
 
 
+    // the unique constraint on email catches what the membership filter missed. Matched by SQLState, not name:
+    // databases first created by ddl-auto=update keep Hibernate's generated UK... names. With ids from a
+    // sequence, email is the only unique column an insert can collide on.
+    private User saveWithUniqueEmail(User user) {
+        try {
+            User savedUser = userRepository.save(user);
+            userRepository.flush();
+            return savedUser;
+        } catch (DataIntegrityViolationException e) {
+            if (e.getCause() instanceof ConstraintViolationException violation
+                    && UNIQUE_VIOLATION.equals(violation.getSQLState())) {
+                throw new UserWithThisEmailAlreadyExistsException();
+            }
+            throw e;
+        }
+    }
+
+    private void replaceEmail(String previousEmail, String email) {
+        if (email != null && !email.equals(previousEmail)) {
+            emailMembershipFilter.add(email);
+            emailMembershipFilter.remove(previousEmail);
+        }
+    }
+
     private void checkIfEmailExists(String email) {
         if (userRepository.existsByEmail(email)) {
             throw new UserWithThisEmailAlreadyExistsException();
@@ -0,0 +1,39 @@
+package com.example.util.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.lang.NonNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evicts each key a second time, {@code reevictDelayMs} after the first eviction. A read that loaded the old row
+ * before a write committed can put it back after the write's eviction; the second eviction removes it, so the
+ * stale entry lives for the delay rather than the whole TTL. A read slower than the delay can still put it back.
+ * Stays a {@link CaffeineCache}, so the cache metrics still bind to it.
+ */
+public class ReevictingCaffeineCache extends CaffeineCache {
+
+    // only times the second eviction, which is a map removal, so it runs on the timer thread itself
+    private final Executor delayed;
+
+    public ReevictingCaffeineCache(String name, Cache<Object, Object> cache, boolean allowNullValues, long reevictDelayMs) {
+        super(name, cache, allowNullValues);
+        this.delayed = CompletableFuture.delayedExecutor(reevictDelayMs, TimeUnit.MILLISECONDS, Runnable::run);
+    }
+
+    @Override
+    public void evict(@NonNull Object key) {
+        super.evict(key);
+        delayed.execute(() -> super.evict(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(@NonNull Object key) {
+        boolean present = super.evictIfPresent(key);
+        delayed.execute(() -> super.evict(key));
+        return present;
+    }
+}
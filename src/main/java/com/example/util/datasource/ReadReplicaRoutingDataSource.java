@@ -0,0 +1,45 @@
+package com.example.util.datasource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Sends read-only transactions to a read replica chosen by {@link ReadReplicas} and everything else to the
+ * primary. The connection is only fetched when the first statement runs, so the transaction's read-only flag is
+ * known by then.
+ */
+public class ReadReplicaRoutingDataSource extends LazyConnectionDataSourceProxy {
+
+    public ReadReplicaRoutingDataSource(ReadReplicas readReplicas) {
+        setTargetDataSource(new DelegatingDataSource(readReplicas.getPrimary()) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                readReplicas.trackWrite();
+                return super.getConnection();
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                readReplicas.trackWrite();
+                return super.getConnection(username, password);
+            }
+        });
+        setReadOnlyDataSource(new AbstractDataSource() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                Replica replica = readReplicas.selectForRead();
+                return (replica == null ? readReplicas.getPrimary() : replica.getDataSource()).getConnection();
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                Replica replica = readReplicas.selectForRead();
+                return (replica == null ? readReplicas.getPrimary() : replica.getDataSource()).getConnection(username, password);
+            }
+        });
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.util.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * The primary and replica pools, and which one a read may use:
+ * <ul>
+ *     <li>Reads wrapped in {@link #readFromPrimary(Supplier)} use the primary.</li>
+ *     <li>A caller that committed a write within the read-your-writes window reads from the primary.</li>
+ *     <li>A request keeps the replica it first read from, so an ETag and the page it describes agree.</li>
+ *     <li>Unhealthy replicas are skipped; with none healthy, reads go to the primary.</li>
+ * </ul>
+ */
+public class ReadReplicas implements AutoCloseable {
+
+    private static final String REQUEST_REPLICA = ReadReplicas.class.getName() + ".replica";
+
+    private static final ThreadLocal<Boolean> PRIMARY_READ = new ThreadLocal<>();
+
+    private final HikariDataSource primary;
+
+    private final List<Replica> replicas;
+
+    private final ReplicaSelection selection;
+
+    private final AuditorAware<String> callers;
+
+    // callers that committed a write within the window; null when the window is 0
+    private final Cache<String, Boolean> recentWriters;
+
+    private final AtomicInteger counter = new AtomicInteger();
+
+    private final ScheduledExecutorService healthChecks = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-health-check");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReadReplicas(HikariDataSource primary,
+                        List<Replica> replicas,
+                        ReplicaSelection selection,
+                        Duration readYourWrites,
+                        AuditorAware<String> callers) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.selection = selection;
+        this.callers = callers;
+        this.recentWriters = readYourWrites.isZero() ? null : Caffeine.newBuilder()
+                .expireAfterWrite(readYourWrites)
+                .build();
+    }
+
+    public HikariDataSource getPrimary() {
+        return primary;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Check every replica now and then every interval, on a thread of their own, so a replica that is down
+     * does not hold up the application's other scheduled tasks.
+     */
+    public void startHealthChecks(Duration interval) {
+        healthChecks.scheduleWithFixedDelay(this::checkReplicas, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void checkReplicas() {
+        replicas.forEach(Replica::checkHealth);
+    }
+
+    /**
+     * Run a read on the primary even though its transaction is read-only, for reads whose result outlives the
+     * request, such as a cached user. Without replicas it just runs the read.
+     */
+    public static <T> T readFromPrimary(Supplier<T> read) {
+        Boolean outer = PRIMARY_READ.get();
+        PRIMARY_READ.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            if (outer == null) {
+                PRIMARY_READ.remove();
+            }
+        }
+    }
+
+    /**
+     * Pick the replica for a read.
+     *
+     * @return The replica, or {@code null} if the read has to go to the primary.
+     */
+    public Replica selectForRead() {
+        if (PRIMARY_READ.get() != null) {
+            return null;
+        }
+        String caller = callers.getCurrentAuditor().orElse(null);
+        if (caller != null && recentWriters != null && recentWriters.getIfPresent(caller) != null) {
+            return null;
+        }
+
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null && request.getAttribute(REQUEST_REPLICA, RequestAttributes.SCOPE_REQUEST) instanceof Replica pinned
+                && pinned.isHealthy()) {
+            return pinned;
+        }
+
+        List<Replica> healthy = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            if (replica.isHealthy()) {
+                healthy.add(replica);
+            }
+        }
+        if (healthy.isEmpty()) {
+            return null;
+        }
+        Replica replica = selection.pick(healthy, counter);
+        if (request != null) {
+            request.setAttribute(REQUEST_REPLICA, replica, RequestAttributes.SCOPE_REQUEST);
+        }
+        return replica;
+    }
+
+    /**
+     * Start the caller's read-your-writes window once the current read-write transaction commits.
+     */
+    public void trackWrite() {
+        if (recentWriters == null || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return;
+        }
+        String caller = callers.getCurrentAuditor().orElse(null);
+        if (caller != null) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recentWriters.put(caller, Boolean.TRUE);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void close() {
+        healthChecks.shutdownNow();
+        replicas.forEach(Replica::close);
+        primary.close();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.util.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Properties;
+
+/**
+ * A read replica's connection pool and the outcome of its last health check. Replicas start unhealthy, so reads
+ * stay on the primary until a replica has passed a check.
+ */
+@Slf4j
+public class Replica implements AutoCloseable {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    @Getter
+    private final String name;
+
+    @Getter
+    private final HikariDataSource dataSource;
+
+    @Getter
+    private volatile boolean healthy;
+
+    public Replica(String name, HikariDataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    public void checkHealth() {
+        boolean valid = probe();
+        if (valid && !healthy) {
+            log.info("Read replica {} is healthy", name);
+        } else if (!valid && healthy) {
+            log.warn("Read replica {} is unhealthy, its reads go to the other replicas or the primary", name);
+        }
+        healthy = valid;
+    }
+
+    // a new connection with short timeouts: the pool would wait its whole connectionTimeout for a replica that is down
+    boolean probe() {
+        Properties properties = new Properties();
+        properties.putAll(dataSource.getDataSourceProperties());
+        if (dataSource.getUsername() != null) {
+            properties.setProperty("user", dataSource.getUsername());
+        }
+        if (dataSource.getPassword() != null) {
+            properties.setProperty("password", dataSource.getPassword());
+        }
+        // PostgreSQL driver settings, in seconds
+        String timeout = String.valueOf(VALIDATION_TIMEOUT_SECONDS);
+        properties.setProperty("connectTimeout", timeout);
+        properties.setProperty("loginTimeout", timeout);
+        properties.setProperty("socketTimeout", timeout);
+
+        String url = dataSource.getJdbcUrl();
+        try (Connection connection = DriverManager.getDriver(url).connect(url, properties)) {
+            return connection != null && connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException ex) {
+            return false;
+        }
+    }
+
+    // connections in use, 0 before the pool has started
+    public int activeConnections() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getActiveConnections();
+    }
+
+    @Override
+    public void close() {
+        dataSource.close();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.util.datasource;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * How a read-only transaction picks among the healthy replicas.
+ */
+public enum ReplicaSelection {
+
+    ROUND_ROBIN {
+        @Override
+        Replica pick(List<Replica> healthy, AtomicInteger counter) {
+            return healthy.get(Math.floorMod(counter.getAndIncrement(), healthy.size()));
+        }
+    },
+
+    // fewest connections in use, read from each Hikari pool
+    LEAST_LOADED {
+        @Override
+        Replica pick(List<Replica> healthy, AtomicInteger counter) {
+            Replica best = healthy.get(0);
+            for (int i = 1; i < healthy.size(); i++) {
+                if (healthy.get(i).activeConnections() < best.activeConnections()) {
+                    best = healthy.get(i);
+                }
+            }
+            return best;
+        }
+    };
+
+    abstract Replica pick(List<Replica> healthy, AtomicInteger counter);
+
+    public static ReplicaSelection of(String value) {
+        return valueOf(value.trim().toUpperCase().replace('-', '_'));
+    }
+}
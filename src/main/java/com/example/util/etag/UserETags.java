@@ -0,0 +1,48 @@
+package com.example.util.etag;
+
+import com.example.domain.User;
+import com.example.repository.projection.UserRangeVersion;
+
+/**
+ * Strong ETags built from {@code last_modified_date}, which JPA auditing bumps on every write.
+ */
+public final class UserETags {
+
+    private UserETags() {
+    }
+
+    public static String of(User user) {
+        return "\"" + versionOf(user) + "\"";
+    }
+
+    public static String of(UserRangeVersion version, int page, int size) {
+        return "\"" + version.count() + "-" + (version.lastModifiedDate() == null ? 0 : version.lastModifiedDate())
+                + "-" + page + "-" + size + "\"";
+    }
+
+    public static long versionOf(User user) {
+        return user.getLastModifiedDate() == null ? 0 : user.getLastModifiedDate();
+    }
+
+    /**
+     * Read the version a client expects from an {@code If-Match} header.
+     *
+     * @return The expected version, {@code null} for {@code *}, or {@code -1}, which matches no user,
+     * for a weak or malformed ETag.
+     */
+    public static Long parseIfMatch(String ifMatch) {
+        String value = ifMatch.trim();
+        if (value.equals("*")) {
+            return null;
+        }
+        // If-Match uses the strong comparison, so weak ETags never match
+        if (value.length() < 3 || value.charAt(0) != '"' || value.charAt(value.length() - 1) != '"') {
+            return -1L;
+        }
+        try {
+            return Long.parseLong(value.substring(1, value.length() - 1));
+        } catch (NumberFormatException ex) {
+            return -1L;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.util.exception_handler;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps how often the same kind of error from the same caller is logged, so a client sending a stream of bad
+ * requests cannot make logging the bottleneck. Each exception type and caller gets {@code user.error-log.limit}
+ * log lines per {@code user.error-log.interval-ms}. The lines held back are counted and summed up in one line
+ * when the interval ends.
+ */
+@Slf4j
+@Component
+public class ErrorLogLimiter {
+
+    private final AuditorAware<String> callers;
+
+    private final int limit;
+
+    private final Cache<Key, AtomicInteger> windows;
+
+    public ErrorLogLimiter(AuditorAware<String> callers,
+                           @Value("${user.error-log.limit}") int limit,
+                           @Value("${user.error-log.interval-ms}") long intervalMs) {
+        this.callers = callers;
+        this.limit = limit;
+        this.windows = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(intervalMs))
+                // windows close on time even when no more errors arrive, so the summary is not held back
+                .scheduler(Scheduler.systemScheduler())
+                .<Key, AtomicInteger>removalListener((key, count, cause) -> {
+                    if (cause == RemovalCause.EXPIRED && key != null && count != null && count.get() > limit) {
+                        log.warn("{} more {} errors from {} were not logged in the last {} ms",
+                                count.get() - limit, key.type().getSimpleName(), key.caller(), intervalMs);
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Count an error and tell whether it may be logged.
+     *
+     * @param ex The error being handled.
+     * @return {@code true} while the error's type and caller are within their limit for the current interval.
+     */
+    public boolean shouldLog(Exception ex) {
+        Key key = new Key(ex.getClass(), callers.getCurrentAuditor().orElse("anonymous"));
+        return windows.get(key, k -> new AtomicInteger()).incrementAndGet() <= limit;
+    }
+
+    private record Key(Class<?> type, String caller) {
+    }
+}
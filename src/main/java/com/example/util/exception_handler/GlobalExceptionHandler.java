@@ -3,56 +3,118 @@ package com.example.util.exception_handler;
 
 import com.example.dto.exception.ErrorResponseDTO;
 import com.example.exception.ClientException;
+import com.example.exception.imports.ImportJobNotFoundException;
+import com.example.exception.imports.ImportQueueFullException;
+import com.example.exception.user.UserVersionMismatchException;
 import com.example.exception.user.UserWithThisIdNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
-import org.springframework.web.servlet.resource.NoResourceFoundException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.util.Collections;
 import java.util.List;
 
 @Slf4j
 @ControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
+    private final MeterRegistry meterRegistry;
+
+    private final ErrorLogLimiter errorLogLimiter;
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponseDTO> handleValidationErrors(MethodArgumentNotValidException ex) {
         List<String> errors = ex.getBindingResult().getFieldErrors()
                 .stream().map(fieldError -> fieldError.getField() + ": " + fieldError.getDefaultMessage())
                 .toList();
-        log.error("Validation error: {}", errors);
+        if (errorLogLimiter.shouldLog(ex)) {
+            log.warn("Validation error: {}", errors);
+        }
+        count(ex, HttpStatus.BAD_REQUEST);
         return new ResponseEntity<>(new ErrorResponseDTO(errors), new HttpHeaders(), HttpStatus.BAD_REQUEST);
     }
 
 
+    // requests Spring MVC could not bind: the client's mistake, so answered and rate-limited like any other
+    @ExceptionHandler({HttpMessageNotReadableException.class, MissingServletRequestParameterException.class,
+            MethodArgumentTypeMismatchException.class, HttpMediaTypeNotSupportedException.class})
+    public final ResponseEntity<ErrorResponseDTO> handleMalformedRequests(Exception ex) {
+        // the reader's message can quote parser internals, so it is not passed on
+        String error = ex instanceof HttpMessageNotReadableException ? "Malformed request body" : ex.getMessage();
+        if (errorLogLimiter.shouldLog(ex)) {
+            log.warn("Malformed request: {}", ex.getMessage());
+        }
+        count(ex, HttpStatus.BAD_REQUEST);
+        List<String> errors = Collections.singletonList(error);
+        return new ResponseEntity<>(new ErrorResponseDTO(errors), new HttpHeaders(), HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(ClientException.class)
     public final ResponseEntity<ErrorResponseDTO> handleClientExceptions(ClientException ex) {
-        log.error("Client error: {}", ex.getMessage(), ex);
+        if (errorLogLimiter.shouldLog(ex)) {
+            log.warn("Client error: {}", ex.getMessage());
+        }
+        count(ex, HttpStatus.BAD_REQUEST);
         List<String> errors = Collections.singletonList(ex.getMessage());
         return new ResponseEntity<>(new ErrorResponseDTO(errors), new HttpHeaders(), HttpStatus.BAD_REQUEST);
     }
-    @ExceptionHandler(UserWithThisIdNotFoundException.class)
-    public final ResponseEntity<ErrorResponseDTO> handleUserNotFoundExceptions(UserWithThisIdNotFoundException ex) {
-        log.error("User not found error: {}", ex.getMessage(), ex);
+    @ExceptionHandler(UserVersionMismatchException.class)
+    public final ResponseEntity<ErrorResponseDTO> handleVersionMismatchExceptions(UserVersionMismatchException ex) {
+        if (errorLogLimiter.shouldLog(ex)) {
+            log.warn("Precondition failed: {}", ex.getMessage());
+        }
+        count(ex, HttpStatus.PRECONDITION_FAILED);
+        List<String> errors = Collections.singletonList(ex.getMessage());
+        return new ResponseEntity<>(new ErrorResponseDTO(errors), new HttpHeaders(), HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler({UserWithThisIdNotFoundException.class, ImportJobNotFoundException.class})
+    public final ResponseEntity<ErrorResponseDTO> handleUserNotFoundExceptions(ClientException ex) {
+        if (errorLogLimiter.shouldLog(ex)) {
+            log.warn("User not found error: {}", ex.getMessage());
+        }
+        count(ex, HttpStatus.NOT_FOUND);
         List<String> errors = Collections.singletonList(ex.getMessage());
         return new ResponseEntity<>(new ErrorResponseDTO(errors), new HttpHeaders(), HttpStatus.NOT_FOUND);
     }
 
 
+    @ExceptionHandler(ImportQueueFullException.class)
+    public final ResponseEntity<ErrorResponseDTO> handleImportQueueFullExceptions(ImportQueueFullException ex) {
+        if (errorLogLimiter.shouldLog(ex)) {
+            log.warn("Import rejected: {}", ex.getMessage());
+        }
+        count(ex, HttpStatus.SERVICE_UNAVAILABLE);
+        List<String> errors = Collections.singletonList(ex.getMessage());
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, "60");
+        return new ResponseEntity<>(new ErrorResponseDTO(errors), headers, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+
+    // never rate-limited: the client's mistakes are handled above, so what is left is ours
     @ExceptionHandler(Exception.class)
     public final ResponseEntity<ErrorResponseDTO> handleGeneralExceptions(Exception ex) {
         log.error("Internal server error: {}", ex.getMessage(), ex);
+        count(ex, HttpStatus.INTERNAL_SERVER_ERROR);
         List<String> errors = Collections.singletonList(ex.getMessage());
         return new ResponseEntity<>(new ErrorResponseDTO(errors), new HttpHeaders(), HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
-
-
-
+    private void count(Exception ex, HttpStatus status) {
+        meterRegistry.counter("user.api.errors",
+                "exception", ex.getClass().getSimpleName(),
+                "status", String.valueOf(status.value())).increment();
+    }
 }
@@ -0,0 +1,71 @@
+package com.example.util.export;
+
+import com.example.dto.user.UserDTO;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+/**
+ * RFC 4180 CSV with a header row; birth dates are written as {@code yyyy-MM-dd}.
+ */
+public class CsvUserExportWriter implements UserExportWriter {
+
+    private static final String HEADER = "id,email,first_name,last_name,birth_date,address,phone_number\r\n";
+
+    private final BufferedWriter writer;
+
+    public CsvUserExportWriter(OutputStream outputStream) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write(HEADER);
+    }
+
+    @Override
+    public void write(UserDTO user) throws IOException {
+        if (user.getId() != null) {
+            writer.write(user.getId().toString());
+        }
+        writer.write(',');
+        writeField(user.getEmail());
+        writer.write(',');
+        writeField(user.getFirstName());
+        writer.write(',');
+        writeField(user.getLastName());
+        writer.write(',');
+        writeField(formatDate(user.getBirthDate()));
+        writer.write(',');
+        writeField(user.getAddress());
+        writer.write(',');
+        writeField(user.getPhoneNumber());
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    // loaded users carry java.sql.Date, whose toString is the ISO date
+    private static String formatDate(Date date) {
+        if (date == null) {
+            return null;
+        }
+        return date instanceof java.sql.Date sqlDate ? sqlDate.toString() : new java.sql.Date(date.getTime()).toString();
+    }
+}
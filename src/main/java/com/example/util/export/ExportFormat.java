@@ -0,0 +1,46 @@
+package com.example.util.export;
+
+import com.example.exception.export.UnsupportedExportFormatException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+public enum ExportFormat {
+
+    NDJSON(MediaType.APPLICATION_NDJSON) {
+        @Override
+        public UserExportWriter writer(ObjectMapper objectMapper, OutputStream outputStream) throws IOException {
+            return new NdjsonUserExportWriter(objectMapper, outputStream);
+        }
+    },
+    CSV(new MediaType("text", "csv", StandardCharsets.UTF_8)) {
+        @Override
+        public UserExportWriter writer(ObjectMapper objectMapper, OutputStream outputStream) throws IOException {
+            return new CsvUserExportWriter(outputStream);
+        }
+    };
+
+    private final MediaType mediaType;
+
+    ExportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public abstract UserExportWriter writer(ObjectMapper objectMapper, OutputStream outputStream) throws IOException;
+
+    public static ExportFormat of(String format) {
+        for (ExportFormat exportFormat : values()) {
+            if (exportFormat.name().equalsIgnoreCase(format)) {
+                return exportFormat;
+            }
+        }
+        throw new UnsupportedExportFormatException(format);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.util.export;
+
+import com.example.dto.user.UserDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * One JSON object per line, serialized like the {@code data} of the other user endpoints.
+ */
+public class NdjsonUserExportWriter implements UserExportWriter {
+
+    private final ObjectWriter userWriter;
+
+    private final JsonGenerator generator;
+
+    public NdjsonUserExportWriter(ObjectMapper objectMapper, OutputStream outputStream) throws IOException {
+        // the newline after each user replaces Jackson's default space between root values; the stream is flushed
+        // once, on close, rather than after every user
+        this.userWriter = objectMapper.writerFor(UserDTO.class)
+                .withRootValueSeparator("")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        // the response stream is closed by the servlet container, not by the generator
+        this.generator = objectMapper.getFactory().createGenerator(outputStream)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    @Override
+    public void write(UserDTO user) throws IOException {
+        userWriter.writeValue(generator, user);
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
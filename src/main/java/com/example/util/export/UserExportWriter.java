@@ -0,0 +1,14 @@
+package com.example.util.export;
+
+import com.example.dto.user.UserDTO;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writes users to an output stream one at a time, buffering at most a few kilobytes.
+ */
+public interface UserExportWriter extends Closeable {
+
+    void write(UserDTO user) throws IOException;
+}
@@ -0,0 +1,107 @@
+package com.example.util.filter;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter of strings. {@link #mightContain(String)} never answers {@code false}
+ * for a value that was put, and answers {@code true} for other values with a probability close to {@link #expectedFpp()}.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+
+    private final long numBits;
+
+    private final int numHashFunctions;
+
+    private final AtomicLong bitCount = new AtomicLong();
+
+    private final AtomicLong insertions = new AtomicLong();
+
+    private BloomFilter(long numBits, int numHashFunctions) {
+        this.bits = new AtomicLongArray(Math.toIntExact((numBits + 63) / 64));
+        this.numBits = bits.length() * 64L;
+        this.numHashFunctions = numHashFunctions;
+    }
+
+    /**
+     * Size a filter for {@code expectedInsertions} values at a false-positive probability of {@code fpp}.
+     */
+    public static BloomFilter create(long expectedInsertions, double fpp) {
+        long insertions = Math.max(expectedInsertions, 1);
+        long numBits = (long) Math.ceil(-insertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        int numHashFunctions = Math.max(1, (int) Math.round((double) numBits / insertions * Math.log(2)));
+        return new BloomFilter(numBits, numHashFunctions);
+    }
+
+    public void put(String value) {
+        long hash = hash(value);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashFunctions; i++) {
+            long bitIndex = Integer.toUnsignedLong(hash1 + i * hash2) % numBits;
+            if (setBit(bitIndex)) {
+                bitCount.incrementAndGet();
+            }
+        }
+        insertions.incrementAndGet();
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        for (int i = 1; i <= numHashFunctions; i++) {
+            long bitIndex = Integer.toUnsignedLong(hash1 + i * hash2) % numBits;
+            if ((bits.get((int) (bitIndex >>> 6)) & (1L << bitIndex)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Probability that {@link #mightContain(String)} answers {@code true} for a value that was never put,
+     * given the bits set so far.
+     */
+    public double expectedFpp() {
+        return Math.pow((double) bitCount.get() / numBits, numHashFunctions);
+    }
+
+    public long getInsertions() {
+        return insertions.get();
+    }
+
+    public long getNumBits() {
+        return numBits;
+    }
+
+    private boolean setBit(long bitIndex) {
+        int wordIndex = (int) (bitIndex >>> 6);
+        long mask = 1L << bitIndex;
+        long word;
+        do {
+            word = bits.get(wordIndex);
+            if ((word & mask) != 0) {
+                return false;
+            }
+        } while (!bits.compareAndSet(wordIndex, word, word | mask));
+        return true;
+    }
+
+    // 64-bit FNV-1a over the chars, finished with the murmur3 fmix64 avalanche
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
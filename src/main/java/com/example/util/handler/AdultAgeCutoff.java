@@ -0,0 +1,59 @@
+package com.example.util.handler;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * The latest birth date that makes a user {@code user.min.age} years old today, in the clock's zone.
+ * It is worked out once per day, on the first check after midnight.
+ */
+@Component
+public class AdultAgeCutoff {
+
+    private final int minAge;
+
+    private final Clock clock;
+
+    private volatile Cutoff cutoff;
+
+    public AdultAgeCutoff(@Value("${user.min.age}") int minAge, Clock clock) {
+        this.minAge = minAge;
+        this.clock = clock;
+    }
+
+    /**
+     * Same result as {@code Period.between(birthDate, today).getYears() >= minAge}, without date arithmetic.
+     */
+    public boolean isOldEnough(Date birthDate) {
+        return birthDate.getTime() < current().bornBefore();
+    }
+
+    private Cutoff current() {
+        long now = clock.millis();
+        Cutoff current = cutoff;
+        if (current == null || now < current.validFrom() || now >= current.validUntil()) {
+            current = compute(now);
+            cutoff = current;
+        }
+        return current;
+    }
+
+    private Cutoff compute(long now) {
+        ZoneId zone = clock.getZone();
+        LocalDate today = Instant.ofEpochMilli(now).atZone(zone).toLocalDate();
+        // born on the cutoff day at the latest, so before the start of the day after it
+        long bornBefore = today.minusYears(minAge).plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+        return new Cutoff(bornBefore,
+                today.atStartOfDay(zone).toInstant().toEpochMilli(),
+                today.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli());
+    }
+
+    private record Cutoff(long bornBefore, long validFrom, long validUntil) {
+    }
+}
@@ -3,17 +3,16 @@ package com.example.util.handler;
 import com.example.util.annotation.AdultAge;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Autowired;
 
-import java.time.LocalDate;
-import java.time.Period;
-import java.time.ZoneId;
+import java.time.Clock;
 import java.util.Date;
 
 public class AdultAgeValidator implements ConstraintValidator<AdultAge, Date> {
 
-    @Value("${user.min.age}")
-    private int minUserAge;
+    // replaced by the application's cutoff when Spring creates the validator; outside Spring only future dates fail
+    @Autowired
+    private AdultAgeCutoff cutoff = new AdultAgeCutoff(0, Clock.systemDefaultZone());
 
     @Override
     public void initialize(AdultAge constraintAnnotation) {
@@ -21,13 +20,6 @@ public class AdultAgeValidator implements ConstraintValidator<AdultAge, Date> {
 
     @Override
     public boolean isValid(Date birthDate, ConstraintValidatorContext constraintValidatorContext) {
-        if (birthDate == null) {
-            return true;
-        }
-
-        LocalDate today = LocalDate.now();
-        LocalDate birthLocalDate = birthDate.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
-        Period period = Period.between(birthLocalDate, today);
-        return period.getYears() >= minUserAge;
+        return birthDate == null || cutoff.isOldEnough(birthDate);
     }
-}
\ No newline at end of file
+}
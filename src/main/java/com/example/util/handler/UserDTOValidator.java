@@ -0,0 +1,215 @@
+package com.example.util.handler;
+
+import com.example.dto.user.UserDTO;
+import com.example.util.annotation.AdultAge;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.metadata.BeanDescriptor;
+import jakarta.validation.metadata.ConstraintDescriptor;
+import jakarta.validation.metadata.PropertyDescriptor;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Past;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import org.hibernate.validator.internal.constraintvalidators.bv.EmailValidator;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+
+import java.lang.annotation.Annotation;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Checks the constraints declared on {@link UserDTO} with straight-line code instead of walking Bean Validation
+ * metadata for every object. The limits, the regular expression and the message templates come from that
+ * metadata once, at startup, and startup fails if the DTO's constraints no longer match this class.
+ * Messages that Bean Validation interpolates, such as the defaults of {@code @Past} and {@code @Pattern}, are taken
+ * from a violation the Bean Validation validator reports once per locale, so both paths produce the same text;
+ * a bounded number of locales is kept, since the locale is the client's choice.
+ */
+@Component
+public class UserDTOValidator implements Validator {
+
+    private static final Set<String> CONSTRAINTS = Set.of(
+            "email:Email", "email:NotBlank", "firstName:NotBlank", "firstName:Size", "lastName:NotBlank",
+            "birthDate:Past", "birthDate:AdultAge", "birthDate:NotNull", "phoneNumber:Pattern");
+
+    // values that violate the constraints whose messages are interpolated
+    private static final Map<String, Object> PROBES = Map.of(
+            "birthDate:Past", new Date(Long.MAX_VALUE / 2),
+            "phoneNumber:Pattern", "");
+
+    // the locale comes from the Accept-Language header
+    private static final int MAX_LOCALES = 32;
+
+    private final jakarta.validation.Validator validator;
+
+    private final AdultAgeCutoff adultAgeCutoff;
+
+    private final Clock clock;
+
+    private final EmailValidator emailValidator = new EmailValidator();
+
+    private final int firstNameMin;
+
+    private final int firstNameMax;
+
+    private final java.util.regex.Pattern phoneNumberPattern;
+
+    private final Map<String, String> templates = new HashMap<>();
+
+    private final Cache<Locale, Map<String, String>> interpolated = Caffeine.newBuilder()
+            .maximumSize(MAX_LOCALES)
+            .build();
+
+    public UserDTOValidator(jakarta.validation.Validator validator, AdultAgeCutoff adultAgeCutoff, Clock clock) {
+        this.validator = validator;
+        this.adultAgeCutoff = adultAgeCutoff;
+        this.clock = clock;
+
+        Map<String, ConstraintDescriptor<?>> constraints = new HashMap<>();
+        BeanDescriptor bean = validator.getConstraintsForClass(UserDTO.class);
+        for (PropertyDescriptor property : bean.getConstrainedProperties()) {
+            for (ConstraintDescriptor<?> constraint : property.getConstraintDescriptors()) {
+                String key = key(property.getPropertyName(), constraint.getAnnotation().annotationType());
+                constraints.put(key, constraint);
+                templates.put(key, constraint.getMessageTemplate());
+            }
+        }
+        if (!constraints.keySet().equals(CONSTRAINTS)) {
+            throw new IllegalStateException("UserDTO declares " + new TreeSet<>(constraints.keySet())
+                    + " but UserDTOValidator checks " + new TreeSet<>(CONSTRAINTS));
+        }
+        for (Map.Entry<String, String> template : templates.entrySet()) {
+            if (template.getValue().contains("{") && !PROBES.containsKey(template.getKey())) {
+                throw new IllegalStateException("No probe to interpolate the message of " + template.getKey());
+            }
+        }
+
+        emailValidator.initialize((Email) constraints.get("email:Email").getAnnotation());
+        Size size = (Size) constraints.get("firstName:Size").getAnnotation();
+        firstNameMin = size.min();
+        firstNameMax = size.max();
+        Pattern pattern = (Pattern) constraints.get("phoneNumber:Pattern").getAnnotation();
+        int flags = 0;
+        for (Pattern.Flag flag : pattern.flags()) {
+            flags |= flag.getValue();
+        }
+        phoneNumberPattern = java.util.regex.Pattern.compile(pattern.regexp(), flags);
+    }
+
+    @Override
+    public boolean supports(@NonNull Class<?> clazz) {
+        return UserDTO.class == clazz;
+    }
+
+    @Override
+    public void validate(@NonNull Object target, @NonNull Errors errors) {
+        check((UserDTO) target, errors::rejectValue);
+    }
+
+    /**
+     * Validate a user as the Bean Validation validator would.
+     *
+     * @param user The user to validate.
+     * @return {@code field: message} for each violated constraint, empty if the user is valid.
+     */
+    public List<String> validate(UserDTO user) {
+        List<String> errors = new ArrayList<>(0);
+        check(user, (field, code, message) -> errors.add(field + ": " + message));
+        return errors;
+    }
+
+    private void check(UserDTO user, Sink sink) {
+        String email = user.getEmail();
+        if (email != null && !emailValidator.isValid(email, null)) {
+            reject(sink, "email", Email.class, "email:Email");
+        }
+        if (isBlank(email)) {
+            reject(sink, "email", NotBlank.class, "email:NotBlank");
+        }
+
+        String firstName = user.getFirstName();
+        if (isBlank(firstName)) {
+            reject(sink, "firstName", NotBlank.class, "firstName:NotBlank");
+        }
+        if (firstName != null && (firstName.length() < firstNameMin || firstName.length() > firstNameMax)) {
+            reject(sink, "firstName", Size.class, "firstName:Size");
+        }
+
+        if (isBlank(user.getLastName())) {
+            reject(sink, "lastName", NotBlank.class, "lastName:NotBlank");
+        }
+
+        Date birthDate = user.getBirthDate();
+        if (birthDate == null) {
+            reject(sink, "birthDate", NotNull.class, "birthDate:NotNull");
+        } else {
+            if (birthDate.getTime() >= clock.millis()) {
+                reject(sink, "birthDate", Past.class, "birthDate:Past");
+            }
+            if (!adultAgeCutoff.isOldEnough(birthDate)) {
+                reject(sink, "birthDate", AdultAge.class, "birthDate:AdultAge");
+            }
+        }
+
+        String phoneNumber = user.getPhoneNumber();
+        if (phoneNumber != null && !phoneNumberPattern.matcher(phoneNumber).matches()) {
+            reject(sink, "phoneNumber", Pattern.class, "phoneNumber:Pattern");
+        }
+    }
+
+    private void reject(Sink sink, String field, Class<? extends Annotation> constraint, String key) {
+        sink.add(field, constraint.getSimpleName(), message(key));
+    }
+
+    // as Hibernate Validator's NotBlankValidator
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    private String message(String key) {
+        String template = templates.get(key);
+        if (!template.contains("{")) {
+            return template;
+        }
+        return interpolated.get(LocaleContextHolder.getLocale(), locale -> new ConcurrentHashMap<>())
+                .computeIfAbsent(key, this::interpolate);
+    }
+
+    // the message the Bean Validation validator gives for a value that only breaks this constraint's rule
+    private String interpolate(String key) {
+        String property = key.substring(0, key.indexOf(':'));
+        String constraint = key.substring(key.indexOf(':') + 1);
+        for (ConstraintViolation<UserDTO> violation : validator.validateValue(UserDTO.class, property, PROBES.get(key))) {
+            if (violation.getConstraintDescriptor().getAnnotation().annotationType().getSimpleName().equals(constraint)) {
+                return violation.getMessage();
+            }
+        }
+        throw new IllegalStateException("The probe for " + key + " did not violate it");
+    }
+
+    private static String key(String property, Class<? extends Annotation> constraint) {
+        return property + ":" + constraint.getSimpleName();
+    }
+
+    // where violations go: field, constraint name as the error code, message
+    @FunctionalInterface
+    private interface Sink {
+        void add(String field, String code, String message);
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.util.imports;
+
+import com.example.dto.user.UserDTO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RFC 4180 CSV whose header names the columns, as written by the export: {@code email}, {@code first_name},
+ * {@code last_name}, {@code birth_date} ({@code yyyy-MM-dd}), {@code address} and {@code phone_number}.
+ * Other columns, such as {@code id}, are ignored. A record longer than the limit is skipped to its end and
+ * reported as malformed, so an unterminated quote cannot pull the rest of the file into memory.
+ */
+public class CsvUserImportReader implements UserImportReader {
+
+    private final BufferedReader reader;
+
+    private final StringBuilder field = new StringBuilder();
+
+    private final int maxRecordLength;
+
+    // characters kept of the row being read, and whether it went over the limit
+    private int rowLength;
+
+    private boolean oversized;
+
+    private Map<String, Integer> columns;
+
+    private int index;
+
+    public CsvUserImportReader(InputStream inputStream, int maxRecordLength) {
+        this.reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    @Override
+    public ImportRecord read() throws IOException {
+        if (columns == null) {
+            List<String> header = readNonBlankRow();
+            if (header == null) {
+                return null;
+            }
+            if (oversized) {
+                throw new IOException("CSV header longer than " + maxRecordLength + " characters");
+            }
+            columns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim().toLowerCase(), i);
+            }
+        }
+
+        List<String> row = readNonBlankRow();
+        if (row == null) {
+            return null;
+        }
+        int recordIndex = index++;
+        if (oversized) {
+            return ImportRecord.malformed(recordIndex, "Record longer than " + maxRecordLength + " characters");
+        }
+
+        UserDTO user = new UserDTO()
+                .setEmail(column(row, "email"))
+                .setFirstName(column(row, "first_name"))
+                .setLastName(column(row, "last_name"))
+                .setAddress(column(row, "address"))
+                .setPhoneNumber(column(row, "phone_number"));
+        String birthDate = column(row, "birth_date");
+        if (birthDate != null) {
+            try {
+                // midnight UTC, as Jackson reads a yyyy-MM-dd date in the NDJSON format
+                user.setBirthDate(Date.from(LocalDate.parse(birthDate).atStartOfDay(ZoneOffset.UTC).toInstant()));
+            } catch (DateTimeParseException ex) {
+                return ImportRecord.malformed(recordIndex, "birthDate: invalid date " + birthDate + ", expected yyyy-MM-dd");
+            }
+        }
+        return ImportRecord.parsed(recordIndex, user);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // empty cells read as null, like absent JSON properties
+    private String column(List<String> row, String name) {
+        Integer position = columns.get(name);
+        if (position == null || position >= row.size() || row.get(position).isEmpty()) {
+            return null;
+        }
+        return row.get(position);
+    }
+
+    private List<String> readNonBlankRow() throws IOException {
+        List<String> row;
+        do {
+            row = readRow();
+        } while (row != null && !oversized && row.size() == 1 && row.get(0).isBlank());
+        return row;
+    }
+
+    private List<String> readRow() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+
+        List<String> row = new ArrayList<>();
+        boolean quoted = false;
+        field.setLength(0);
+        rowLength = 0;
+        oversized = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    break;
+                }
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                row.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                break;
+            } else {
+                append((char) c);
+            }
+            c = reader.read();
+        }
+        row.add(field.toString());
+        return row;
+    }
+
+    // past the limit the row is still parsed to its end, but nothing more is kept
+    private void append(char c) {
+        if (++rowLength > maxRecordLength) {
+            oversized = true;
+        } else {
+            field.append(c);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.util.imports;
+
+import com.example.exception.imports.UnsupportedImportFormatException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.InputStream;
+
+public enum ImportFormat {
+
+    NDJSON {
+        @Override
+        public UserImportReader reader(ObjectMapper objectMapper, InputStream inputStream, int maxRecordLength) {
+            return new NdjsonUserImportReader(objectMapper, inputStream, maxRecordLength);
+        }
+    },
+    CSV {
+        @Override
+        public UserImportReader reader(ObjectMapper objectMapper, InputStream inputStream, int maxRecordLength) {
+            return new CsvUserImportReader(inputStream, maxRecordLength);
+        }
+    };
+
+    public abstract UserImportReader reader(ObjectMapper objectMapper, InputStream inputStream, int maxRecordLength);
+
+    public static ImportFormat of(String format) {
+        for (ImportFormat importFormat : values()) {
+            if (importFormat.name().equalsIgnoreCase(format)) {
+                return importFormat;
+            }
+        }
+        throw new UnsupportedImportFormatException(format);
+    }
+}
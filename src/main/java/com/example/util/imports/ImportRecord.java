@@ -0,0 +1,19 @@
+package com.example.util.imports;
+
+import com.example.dto.user.UserDTO;
+
+/**
+ * One record of an uploaded file: either a parsed user or the reason it could not be parsed.
+ *
+ * @param index Position of the record in the file, starting at 0 after any header.
+ */
+public record ImportRecord(int index, UserDTO user, String error) {
+
+    public static ImportRecord parsed(int index, UserDTO user) {
+        return new ImportRecord(index, user, null);
+    }
+
+    public static ImportRecord malformed(int index, String error) {
+        return new ImportRecord(index, null, error);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.util.imports;
+
+import com.example.dto.user.UserDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One JSON object per line, read with the same view as the create endpoint; blank lines are skipped. A line longer
+ * than the limit is skipped to its end and reported as malformed rather than read into memory.
+ */
+public class NdjsonUserImportReader implements UserImportReader {
+
+    private final ObjectReader userReader;
+
+    private final BufferedReader reader;
+
+    private final StringBuilder line = new StringBuilder();
+
+    private final int maxLineLength;
+
+    private boolean oversized;
+
+    private int index;
+
+    public NdjsonUserImportReader(ObjectMapper objectMapper, InputStream inputStream, int maxLineLength) {
+        this.userReader = objectMapper.readerFor(UserDTO.class).withView(UserDTO.Input.class);
+        this.reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        this.maxLineLength = maxLineLength;
+    }
+
+    @Override
+    public ImportRecord read() throws IOException {
+        do {
+            if (!readLine()) {
+                return null;
+            }
+        } while (!oversized && line.toString().isBlank());
+
+        int recordIndex = index++;
+        if (oversized) {
+            return ImportRecord.malformed(recordIndex, "Record longer than " + maxLineLength + " characters");
+        }
+        try {
+            return ImportRecord.parsed(recordIndex, userReader.readValue(line.toString()));
+        } catch (JsonProcessingException ex) {
+            return ImportRecord.malformed(recordIndex, "Malformed record: " + ex.getOriginalMessage());
+        }
+    }
+
+    // like BufferedReader.readLine, but keeps at most maxLineLength characters of the line
+    private boolean readLine() throws IOException {
+        line.setLength(0);
+        oversized = false;
+        int c = reader.read();
+        if (c == -1) {
+            return false;
+        }
+        while (c != -1 && c != '\n') {
+            if (line.length() < maxLineLength) {
+                line.append((char) c);
+            } else if (c != '\r') {
+                oversized = true;
+            }
+            c = reader.read();
+        }
+        if (!line.isEmpty() && line.charAt(line.length() - 1) == '\r') {
+            line.setLength(line.length() - 1);
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
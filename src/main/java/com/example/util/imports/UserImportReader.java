@@ -0,0 +1,15 @@
+package com.example.util.imports;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads users from an input stream one record at a time, so only the current record is held in memory.
+ */
+public interface UserImportReader extends Closeable {
+
+    /**
+     * @return The next record, or {@code null} at the end of the input.
+     */
+    ImportRecord read() throws IOException;
+}
@@ -0,0 +1,123 @@
+package com.example.util.jdbc;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times statements at the JDBC level, so Hibernate queries and plain {@code JdbcTemplate} statements are both
+ * covered. A statement is logged, with its bind count, when it runs for at least the threshold; a sampled fraction
+ * of the others is logged too. The time covers the execute call, not reading the rows of a streamed result.
+ */
+@Slf4j
+public class SlowQueryLog {
+
+    private final long thresholdNanos;
+
+    private final double sampleRate;
+
+    public SlowQueryLog(long thresholdMs, double sampleRate) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        this.sampleRate = sampleRate;
+    }
+
+    public Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    boolean shouldLog(long elapsedNanos) {
+        return elapsedNanos >= thresholdNanos
+                || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    private void log(String sql, long elapsedNanos, int binds, int batchSize) {
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        if (elapsedNanos >= thresholdNanos) {
+            log.warn("Slow query: {} ms, {} binds, batch {}: {}", elapsedMs, binds, batchSize, sql);
+        } else {
+            log.info("Sampled query: {} ms, {} binds, batch {}: {}", elapsedMs, binds, batchSize, sql);
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SlowQueryLog.invoke(target, method, args);
+            if (result instanceof Statement statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                        : statement instanceof PreparedStatement ? PreparedStatement.class
+                        : Statement.class;
+                return Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                        new Class<?>[]{type}, new StatementHandler(statement, sql));
+            }
+            return result;
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+
+        private String sql;
+
+        private int binds;
+
+        private int batchSize;
+
+        private StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length > 1 && args[0] instanceof Integer index) {
+                binds = Math.max(binds, index);
+            } else if (name.equals("addBatch")) {
+                batchSize++;
+            } else if (name.startsWith("execute")) {
+                if (args != null && args.length > 0 && args[0] instanceof String text) {
+                    sql = text;
+                }
+                long start = System.nanoTime();
+                try {
+                    return SlowQueryLog.invoke(target, method, args);
+                } finally {
+                    long elapsed = System.nanoTime() - start;
+                    if (shouldLog(elapsed)) {
+                        log(sql, elapsed, binds, batchSize);
+                    }
+                    batchSize = 0;
+                }
+            }
+            return SlowQueryLog.invoke(target, method, args);
+        }
+    }
+}
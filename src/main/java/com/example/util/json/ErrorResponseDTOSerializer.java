@@ -0,0 +1,46 @@
+package com.example.util.json;
+
+import com.example.dto.exception.ErrorResponseDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * {@link ErrorResponseDTO} as the bean serializer writes it, so an error answer costs no more to write than a user.
+ */
+class ErrorResponseDTOSerializer extends HandWrittenSerializer<ErrorResponseDTO> {
+
+    static final List<String> PROPERTY_NAMES = List.of("errors");
+
+    private static final SerializedString ERRORS = new SerializedString("errors");
+
+    ErrorResponseDTOSerializer(JsonSerializer<?> beanSerializer) {
+        super(ErrorResponseDTO.class, beanSerializer);
+    }
+
+    @Override
+    protected void resolveProperties() {
+    }
+
+    @Override
+    protected void serializeFields(ErrorResponseDTO response, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        List<String> errors = response.getErrors();
+        if (errors == null) {
+            return;
+        }
+        gen.writeFieldName(ERRORS);
+        gen.writeStartArray(errors, errors.size());
+        for (String error : errors) {
+            if (error == null) {
+                gen.writeNull();
+            } else {
+                gen.writeString(error);
+            }
+        }
+        gen.writeEndArray();
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.util.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.impl.PropertySerializerMap;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Writes a bean's properties with direct getter calls instead of reflective property writers. The bean serializer
+ * Jackson built for the type stays behind it. That serializer takes over whenever a {@code @JsonView} is active
+ * or a type id is needed. It also provides the property metadata for values with a runtime-dependent serializer,
+ * such as dates.
+ */
+abstract class HandWrittenSerializer<T> extends StdSerializer<T> implements ResolvableSerializer {
+
+    private final JsonSerializer<Object> beanSerializer;
+
+    @SuppressWarnings("unchecked")
+    protected HandWrittenSerializer(Class<T> type, JsonSerializer<?> beanSerializer) {
+        super(type);
+        this.beanSerializer = (JsonSerializer<Object>) beanSerializer;
+    }
+
+    /**
+     * The property names, in order, that the bean serializer has to write for this serializer to match it byte
+     * for byte. The order follows the mapper's configuration, such as its naming strategy and property sorting.
+     */
+    static List<String> propertyNames(JsonSerializer<?> beanSerializer) {
+        List<String> names = new ArrayList<>();
+        for (Iterator<PropertyWriter> properties = beanSerializer.properties(); properties.hasNext(); ) {
+            names.add(properties.next().getName());
+        }
+        return names;
+    }
+
+    @Override
+    public void resolve(SerializerProvider provider) throws JsonMappingException {
+        if (beanSerializer instanceof ResolvableSerializer resolvable) {
+            resolvable.resolve(provider);
+        }
+        resolveProperties();
+    }
+
+    /**
+     * Look up the properties the subclass needs from the resolved bean serializer.
+     */
+    protected abstract void resolveProperties();
+
+    protected abstract void serializeFields(T value, JsonGenerator gen, SerializerProvider provider) throws IOException;
+
+    @Override
+    public void serialize(T value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (provider.getActiveView() != null) {
+            beanSerializer.serialize(value, gen, provider);
+            return;
+        }
+        gen.writeStartObject(value);
+        serializeFields(value, gen, provider);
+        gen.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(T value, JsonGenerator gen, SerializerProvider provider,
+                                  TypeSerializer typeSerializer) throws IOException {
+        beanSerializer.serializeWithType(value, gen, provider, typeSerializer);
+    }
+
+    protected BeanProperty property(String name) {
+        for (Iterator<PropertyWriter> properties = beanSerializer.properties(); properties.hasNext(); ) {
+            PropertyWriter property = properties.next();
+            if (property.getName().equals(name)) {
+                return property;
+            }
+        }
+        throw new IllegalStateException("No property " + name + " on " + handledType().getName());
+    }
+
+    /**
+     * A property whose serializer depends on the runtime class of its value, cached per class as
+     * {@link BeanPropertyWriter} does.
+     */
+    protected static final class DynamicProperty {
+
+        private final BeanProperty property;
+
+        private PropertySerializerMap serializers = PropertySerializerMap.emptyForProperties();
+
+        DynamicProperty(BeanProperty property) {
+            this.property = property;
+        }
+
+        void serialize(Object value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            JsonSerializer<Object> serializer = serializers.serializerFor(value.getClass());
+            if (serializer == null) {
+                PropertySerializerMap.SerializerAndMapResult result =
+                        serializers.findAndAddSecondarySerializer(value.getClass(), provider, property);
+                serializers = result.map;
+                serializer = result.serializer;
+            }
+            serializer.serialize(value, gen, provider);
+        }
+    }
+}
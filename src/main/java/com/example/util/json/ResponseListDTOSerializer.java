@@ -0,0 +1,72 @@
+package com.example.util.json;
+
+import com.example.dto.response.ResponseListDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * {@link ResponseListDTO} as the bean serializer writes it: {@code NON_NULL}, inherited {@code data} first.
+ * The data is written by the serializer for its runtime class, so a list of users goes through
+ * {@link UserDTOSerializer}.
+ */
+@SuppressWarnings("rawtypes")
+class ResponseListDTOSerializer extends HandWrittenSerializer<ResponseListDTO> {
+
+    static final List<String> PROPERTY_NAMES =
+            List.of("data", "current_page", "total_elements", "total_pages", "size", "has_next", "next_cursor");
+
+    private static final SerializedString DATA = new SerializedString("data");
+
+    private static final SerializedString CURRENT_PAGE = new SerializedString("current_page");
+
+    private static final SerializedString TOTAL_ELEMENTS = new SerializedString("total_elements");
+
+    private static final SerializedString TOTAL_PAGES = new SerializedString("total_pages");
+
+    private static final SerializedString SIZE = new SerializedString("size");
+
+    private static final SerializedString HAS_NEXT = new SerializedString("has_next");
+
+    private static final SerializedString NEXT_CURSOR = new SerializedString("next_cursor");
+
+    private DynamicProperty data;
+
+    ResponseListDTOSerializer(JsonSerializer<?> beanSerializer) {
+        super(ResponseListDTO.class, beanSerializer);
+    }
+
+    @Override
+    protected void resolveProperties() {
+        data = new DynamicProperty(property("data"));
+    }
+
+    @Override
+    protected void serializeFields(ResponseListDTO response, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (response.getData() != null) {
+            gen.writeFieldName(DATA);
+            data.serialize(response.getData(), gen, provider);
+        }
+        writeNumber(gen, CURRENT_PAGE, response.getCurrentPage());
+        writeNumber(gen, TOTAL_ELEMENTS, response.getTotalElements());
+        writeNumber(gen, TOTAL_PAGES, response.getTotalPages());
+        gen.writeFieldName(SIZE);
+        gen.writeNumber(response.getSize());
+        if (response.getHasNext() != null) {
+            gen.writeFieldName(HAS_NEXT);
+            gen.writeBoolean(response.getHasNext());
+        }
+        UserDTOSerializer.writeString(gen, NEXT_CURSOR, response.getNextCursor());
+    }
+
+    private static void writeNumber(JsonGenerator gen, SerializedString name, Long value) throws IOException {
+        if (value != null) {
+            gen.writeFieldName(name);
+            gen.writeNumber(value);
+        }
+    }
+}
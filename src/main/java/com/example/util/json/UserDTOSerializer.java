@@ -0,0 +1,71 @@
+package com.example.util.json;
+
+import com.example.dto.user.UserDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * {@link UserDTO} as the bean serializer writes it: {@code NON_NULL}, in field order.
+ */
+class UserDTOSerializer extends HandWrittenSerializer<UserDTO> {
+
+    static final List<String> PROPERTY_NAMES =
+            List.of("id", "email", "firstName", "lastName", "birthDate", "address", "phoneNumber");
+
+    private static final SerializedString ID = new SerializedString("id");
+
+    private static final SerializedString EMAIL = new SerializedString("email");
+
+    private static final SerializedString FIRST_NAME = new SerializedString("firstName");
+
+    private static final SerializedString LAST_NAME = new SerializedString("lastName");
+
+    private static final SerializedString BIRTH_DATE = new SerializedString("birthDate");
+
+    private static final SerializedString ADDRESS = new SerializedString("address");
+
+    private static final SerializedString PHONE_NUMBER = new SerializedString("phoneNumber");
+
+    // java.util.Date and java.sql.Date serialize differently
+    private DynamicProperty birthDate;
+
+    UserDTOSerializer(JsonSerializer<?> beanSerializer) {
+        super(UserDTO.class, beanSerializer);
+    }
+
+    @Override
+    protected void resolveProperties() {
+        birthDate = new DynamicProperty(property("birthDate"));
+    }
+
+    @Override
+    protected void serializeFields(UserDTO user, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (user.getId() != null) {
+            gen.writeFieldName(ID);
+            gen.writeNumber(user.getId());
+        }
+        writeString(gen, EMAIL, user.getEmail());
+        writeString(gen, FIRST_NAME, user.getFirstName());
+        writeString(gen, LAST_NAME, user.getLastName());
+        Date date = user.getBirthDate();
+        if (date != null) {
+            gen.writeFieldName(BIRTH_DATE);
+            birthDate.serialize(date, gen, provider);
+        }
+        writeString(gen, ADDRESS, user.getAddress());
+        writeString(gen, PHONE_NUMBER, user.getPhoneNumber());
+    }
+
+    static void writeString(JsonGenerator gen, SerializedString name, String value) throws IOException {
+        if (value != null) {
+            gen.writeFieldName(name);
+            gen.writeString(value);
+        }
+    }
+}
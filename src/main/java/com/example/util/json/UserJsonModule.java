@@ -0,0 +1,47 @@
+package com.example.util.json;
+
+import com.example.dto.exception.ErrorResponseDTO;
+import com.example.dto.response.ResponseListDTO;
+import com.example.dto.user.UserDTO;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializer;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+
+/**
+ * Swaps the reflective bean serializers of {@link UserDTO}, {@link ResponseListDTO} and {@link ErrorResponseDTO}
+ * for hand-written ones.
+ * A serializer is only swapped when the mapper's bean serializer writes exactly the property names the
+ * hand-written one does, so the output stays byte-identical whatever the mapper's configuration.
+ */
+public class UserJsonModule extends SimpleModule {
+
+    public UserJsonModule() {
+        super(UserJsonModule.class.getSimpleName());
+        setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            public JsonSerializer<?> modifySerializer(SerializationConfig config, BeanDescription beanDesc,
+                                                      JsonSerializer<?> serializer) {
+                if (!(serializer instanceof BeanSerializer)) {
+                    return serializer;
+                }
+                Class<?> type = beanDesc.getBeanClass();
+                if (type == UserDTO.class
+                        && UserDTOSerializer.PROPERTY_NAMES.equals(HandWrittenSerializer.propertyNames(serializer))) {
+                    return new UserDTOSerializer(serializer);
+                }
+                if (type == ErrorResponseDTO.class
+                        && ErrorResponseDTOSerializer.PROPERTY_NAMES.equals(HandWrittenSerializer.propertyNames(serializer))) {
+                    return new ErrorResponseDTOSerializer(serializer);
+                }
+                if (type == ResponseListDTO.class
+                        && ResponseListDTOSerializer.PROPERTY_NAMES.equals(HandWrittenSerializer.propertyNames(serializer))) {
+                    return new ResponseListDTOSerializer(serializer);
+                }
+                return serializer;
+            }
+        });
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.util.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every call into the service, repository and mapper layers, so the time of one request can be split by
+ * stage. Timers are tagged with the method as {@code operation}, {@code success} or {@code error} as
+ * {@code outcome}, and the exception class. Histograms and percentiles are configured per metric name in
+ * {@code application.properties}.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class StageTimingAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(* com.example.service.user.IUserService.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("user.service", joinPoint);
+    }
+
+    // Spring Data repositories are proxies, so match the bean type rather than a declaring class
+    @Around("this(com.example.repository.UserRepository)")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("user.repository", joinPoint);
+    }
+
+    @Around("execution(* com.example.mapper.user.IUserMapper.*(..))")
+    public Object timeMapper(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("user.mapper", joinPoint);
+    }
+
+    private Object time(String name, ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable ex) {
+            outcome = "error";
+            exception = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            sample.stop(Timer.builder(name)
+                    .tag("operation", joinPoint.getSignature().getName())
+                    .tag("outcome", outcome)
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.util.pagination;
+
+import com.example.exception.pagination.InvalidCursorException;
+import com.example.repository.projection.UserRow;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Keyset position in the {@code (birth_date, id)} ordering of users, exchanged with clients as an opaque string.
+ */
+@Getter
+@AllArgsConstructor
+public class UserCursor {
+
+    private static final char SEPARATOR = ':';
+
+    private final Date birthDate;
+
+    private final Long id;
+
+    public static UserCursor of(UserRow user) {
+        return new UserCursor(user.birthDate(), user.id());
+    }
+
+    public String encode() {
+        String raw = birthDate.getTime() + String.valueOf(SEPARATOR) + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static UserCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new UserCursor(new Date(Long.parseLong(raw.substring(0, separator))),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+}
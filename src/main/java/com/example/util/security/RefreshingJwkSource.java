@@ -0,0 +1,141 @@
+package com.example.util.security;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.ResourceRetriever;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URL;
+import java.text.ParseException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps the last fetched JWK set in memory and refreshes it off the request path, on a thread of its own.
+ * The set is fetched when {@link #start(long)} is called; requests that arrive before it is in all wait for one
+ * shared fetch. Afterwards an unknown key id schedules a background refresh (at most once per
+ * {@code minRefreshIntervalMs}) and the request is answered from the current set.
+ */
+@Slf4j
+public class RefreshingJwkSource implements JWKSource<SecurityContext>, AutoCloseable {
+
+    private final URL jwkSetUrl;
+    private final ResourceRetriever resourceRetriever;
+    private final long minRefreshIntervalMs;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jwk-set-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // the fetch requests wait for while there is no set yet
+    private final AtomicReference<CompletableFuture<JWKSet>> pendingFetch = new AtomicReference<>();
+    private volatile JWKSet jwkSet;
+    private volatile long lastRefreshMillis;
+
+    public RefreshingJwkSource(URL jwkSetUrl, ResourceRetriever resourceRetriever, long minRefreshIntervalMs) {
+        this.jwkSetUrl = jwkSetUrl;
+        this.resourceRetriever = resourceRetriever;
+        this.minRefreshIntervalMs = minRefreshIntervalMs;
+    }
+
+    /**
+     * Fetches the JWK set now and then every {@code refreshIntervalMs}, so requests never wait on the endpoint.
+     */
+    public void start(long refreshIntervalMs) {
+        executor.scheduleWithFixedDelay(this::refresh, 0, refreshIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) throws KeySourceException {
+        JWKSet current = jwkSet;
+        if (current == null) {
+            current = awaitFirstFetch();
+        }
+        List<JWK> matches = jwkSelector.select(current);
+        if (matches.isEmpty()) {
+            refreshInBackground();
+        }
+        return matches;
+    }
+
+    /**
+     * Fetches the JWK set and swaps it in; on failure the previous set stays in use.
+     */
+    public void refresh() {
+        try {
+            fetch();
+        } catch (KeySourceException ex) {
+            log.warn("JWK set refresh from {} failed, keeping the previous keys: {}", jwkSetUrl, ex.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    // one fetch however many requests wait, so a slow endpoint is not called once per request
+    private JWKSet awaitFirstFetch() throws KeySourceException {
+        CompletableFuture<JWKSet> fetching = new CompletableFuture<>();
+        CompletableFuture<JWKSet> pending = pendingFetch.compareAndExchange(null, fetching);
+        if (pending == null) {
+            pending = fetching;
+            executor.execute(() -> {
+                JWKSet current = jwkSet;
+                try {
+                    current = current != null ? current : fetch();
+                } catch (KeySourceException | RuntimeException ex) {
+                    // cleared first, so a request that sees the failure can start the next attempt
+                    pendingFetch.set(null);
+                    fetching.completeExceptionally(ex);
+                    return;
+                }
+                pendingFetch.set(null);
+                fetching.complete(current);
+            });
+        }
+
+        try {
+            return pending.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof KeySourceException keySourceException) {
+                throw keySourceException;
+            }
+            throw new KeySourceException("Couldn't retrieve JWK set from " + jwkSetUrl + ": " + ex.getCause().getMessage(), ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new KeySourceException("Interrupted while waiting for the JWK set from " + jwkSetUrl, ex);
+        }
+    }
+
+    private void refreshInBackground() {
+        long now = System.currentTimeMillis();
+        if (now - lastRefreshMillis >= minRefreshIntervalMs) {
+            lastRefreshMillis = now;
+            executor.execute(this::refresh);
+        }
+    }
+
+    private JWKSet fetch() throws KeySourceException {
+        lastRefreshMillis = System.currentTimeMillis();
+        try {
+            JWKSet fetched = JWKSet.parse(resourceRetriever.retrieveResource(jwkSetUrl).getContent());
+            jwkSet = fetched;
+            return fetched;
+        } catch (IOException | ParseException ex) {
+            throw new KeySourceException("Couldn't retrieve JWK set from " + jwkSetUrl + ": " + ex.getMessage(), ex);
+        }
+    }
+}
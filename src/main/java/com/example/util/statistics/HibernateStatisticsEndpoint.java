@@ -0,0 +1,74 @@
+package com.example.util.statistics;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hibernate statistics at {@code /actuator/hibernate}, since they were last cleared; {@code DELETE} clears them.
+ * Both need the {@code ROLE_ADMIN} realm role, as the slowest query is reported with its text. With open-in-view
+ * each request runs in one session, so the per-session averages are per-request figures. The read-replicas profile
+ * turns open-in-view off, and then a request opens a session per transaction, so the averages are per transaction.
+ */
+@Component
+@Endpoint(id = "hibernate")
+public class HibernateStatisticsEndpoint {
+
+    private final Statistics statistics;
+
+    public HibernateStatisticsEndpoint(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ReadOperation
+    public Map<String, Object> statistics() {
+        long sessions = statistics.getSessionOpenCount();
+
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("sessions", sessions);
+        totals.put("transactions", statistics.getTransactionCount());
+        totals.put("statements_prepared", statistics.getPrepareStatementCount());
+        totals.put("queries", statistics.getQueryExecutionCount());
+        totals.put("entity_loads", statistics.getEntityLoadCount());
+        totals.put("entity_fetches", statistics.getEntityFetchCount());
+        totals.put("entity_inserts", statistics.getEntityInsertCount());
+        totals.put("entity_updates", statistics.getEntityUpdateCount());
+        totals.put("entity_deletes", statistics.getEntityDeleteCount());
+        totals.put("flushes", statistics.getFlushCount());
+        totals.put("optimistic_failures", statistics.getOptimisticFailureCount());
+
+        Map<String, Object> perSession = new LinkedHashMap<>();
+        perSession.put("statements_prepared", average(statistics.getPrepareStatementCount(), sessions));
+        perSession.put("queries", average(statistics.getQueryExecutionCount(), sessions));
+        perSession.put("entity_loads", average(statistics.getEntityLoadCount(), sessions));
+        perSession.put("flushes", average(statistics.getFlushCount(), sessions));
+
+        Map<String, Object> slowestQuery = new LinkedHashMap<>();
+        slowestQuery.put("time_ms", statistics.getQueryExecutionMaxTime());
+        slowestQuery.put("query", statistics.getQueryExecutionMaxTimeQueryString());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", statistics.isStatisticsEnabled());
+        result.put("since", statistics.getStart());
+        result.put("totals", totals);
+        result.put("per_session", perSession);
+        result.put("slowest_query", slowestQuery);
+        return result;
+    }
+
+    @DeleteOperation
+    public void clear() {
+        statistics.clear();
+    }
+
+    private static double average(long count, long sessions) {
+        return sessions == 0 ? 0 : (double) count / sessions;
+    }
+}
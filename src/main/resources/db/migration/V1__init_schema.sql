@@ -0,0 +1,49 @@
+-- Schema previously created by ddl-auto=update; IF NOT EXISTS keeps this a no-op on those databases.
+
+CREATE TABLE IF NOT EXISTS service_user
+(
+    id                 BIGINT       NOT NULL,
+    email              VARCHAR(255) NOT NULL UNIQUE,
+    first_name         VARCHAR(255) NOT NULL,
+    last_name          VARCHAR(255) NOT NULL,
+    birth_date         DATE         NOT NULL,
+    address            VARCHAR(255),
+    phone_number       VARCHAR(255),
+    created_date       BIGINT,
+    last_modified_date BIGINT,
+    created_by         VARCHAR(255),
+    last_modified_by   VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+-- ids come from a pooled sequence (allocation size 50), not from an identity column
+ALTER TABLE service_user ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS service_user_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('service_user_seq', COALESCE((SELECT MAX(id) FROM service_user), 0) + 50, false);
+
+CREATE SEQUENCE IF NOT EXISTS revinfo_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS revinfo
+(
+    rev      INTEGER NOT NULL,
+    revtstmp BIGINT,
+    PRIMARY KEY (rev)
+);
+
+CREATE TABLE IF NOT EXISTS service_user_aud
+(
+    id                 BIGINT  NOT NULL,
+    rev                INTEGER NOT NULL REFERENCES revinfo (rev),
+    revtype            SMALLINT,
+    email              VARCHAR(255),
+    first_name         VARCHAR(255),
+    last_name          VARCHAR(255),
+    birth_date         DATE,
+    address            VARCHAR(255),
+    phone_number       VARCHAR(255),
+    created_date       BIGINT,
+    last_modified_date BIGINT,
+    created_by         VARCHAR(255),
+    last_modified_by   VARCHAR(255),
+    PRIMARY KEY (rev, id)
+);
@@ -0,0 +1,10 @@
+-- findByBirthDateBetween filters and pages on birth_date; id makes the keyset order (birth_date, id) index-only
+CREATE INDEX IF NOT EXISTS idx_service_user_birth_date_id ON service_user (birth_date, id);
+
+-- existsByEmail and existsByEmailAndNotId can be answered from the index without visiting the table
+CREATE INDEX IF NOT EXISTS idx_service_user_email_id ON service_user (email, id);
+
+-- revision history of one user; the primary key (rev, id) only serves lookups by revision
+CREATE INDEX IF NOT EXISTS idx_service_user_aud_id_rev ON service_user_aud (id, rev);
+
+CREATE INDEX IF NOT EXISTS idx_revinfo_revtstmp ON revinfo (revtstmp);
@@ -0,0 +1,20 @@
+-- Audit outbox for the audit-outbox profile: one row per changed user per transaction,
+-- moved into revinfo / service_user_aud in batches by UserAuditOutbox.
+CREATE TABLE IF NOT EXISTS user_audit_outbox
+(
+    id                 BIGSERIAL PRIMARY KEY,
+    tx_id              UUID     NOT NULL,
+    revtstmp           BIGINT   NOT NULL,
+    revtype            SMALLINT NOT NULL,
+    user_id            BIGINT   NOT NULL,
+    email              VARCHAR(255),
+    first_name         VARCHAR(255),
+    last_name          VARCHAR(255),
+    birth_date         DATE,
+    address            VARCHAR(255),
+    phone_number       VARCHAR(255),
+    created_date       BIGINT,
+    last_modified_date BIGINT,
+    created_by         VARCHAR(255),
+    last_modified_by   VARCHAR(255)
+);
@@ -0,0 +1,4 @@
+-- the search ETag reads MAX(last_modified_date) and COUNT(*) over a birth_date range;
+-- carrying last_modified_date in the range index keeps that query index-only
+DROP INDEX IF EXISTS idx_service_user_birth_date_id;
+CREATE INDEX idx_service_user_birth_date_id ON service_user (birth_date, id) INCLUDE (last_modified_date);
@@ -0,0 +1,3 @@
+-- the UNIQUE constraint on email already indexes it; the (email, id) copy only added write and storage cost,
+-- and existsByEmailAndNotId checks the id of the single matching row either way
+DROP INDEX IF EXISTS idx_service_user_email_id;
@@ -0,0 +1,37 @@
+package com.example;
+
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.testcontainers.DockerClientFactory;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * For Testcontainers tests in place of {@code disabledWithoutDocker}: without Docker they are skipped on a developer
+ * machine, but on CI (the {@code CI} environment variable is set) they run and fail, so a missing Docker daemon
+ * cannot turn them into silent skips.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(RequiresDocker.Condition.class)
+public @interface RequiresDocker {
+
+    class Condition implements ExecutionCondition {
+
+        @Override
+        public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+            if (System.getenv("CI") != null) {
+                return ConditionEvaluationResult.enabled("Docker is required on CI");
+            }
+            if (DockerClientFactory.instance().isDockerAvailable()) {
+                return ConditionEvaluationResult.enabled("Docker is available");
+            }
+            return ConditionEvaluationResult.disabled("Docker is not available");
+        }
+    }
+}
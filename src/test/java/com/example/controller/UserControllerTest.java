@@ -1,32 +1,62 @@
 package com.example.controller;
 
+import com.example.config.JacksonConfig;
 import com.example.domain.User;
 import com.example.dto.user.UserDTO;
+import com.example.exception.export.UnsupportedExportFormatException;
+import com.example.exception.user.UserBatchTooLargeException;
 import com.example.mapper.user.IUserMapper;
+import com.example.repository.projection.UserRangeVersion;
+import com.example.repository.projection.UserRow;
+import com.example.service.user.BatchCreateResult;
+import com.example.service.user.BatchDeleteResult;
+import com.example.service.user.IUserImportService;
 import com.example.service.user.IUserService;
+import com.example.service.user.UserImportJob;
+import com.example.util.handler.AdultAgeCutoff;
+import com.example.util.handler.UserDTOValidator;
+import com.example.util.imports.ImportFormat;
+import com.example.util.json.UserJsonModule;
+import com.example.util.pagination.UserCursor;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import jakarta.validation.Validation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 
+import java.time.Clock;
 import java.time.Instant;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -34,6 +64,10 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @ExtendWith(MockitoExtension.class)
 class UserControllerTest {
 
+    private static final MediaType CBOR = MediaType.valueOf("application/cbor");
+
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
 
     private MockMvc mockMvc;
 
@@ -43,18 +77,41 @@ class UserControllerTest {
     @Mock
     private IUserMapper userMapper;
 
+    @Mock
+    private IUserImportService userImportService;
+
+    @Spy
+    private UserDTOValidator userDTOValidator = new UserDTOValidator(Validation.buildDefaultValidatorFactory().getValidator(),
+            new AdultAgeCutoff(18, Clock.systemDefaultZone()), Clock.systemDefaultZone());
+
+    @Spy
+    private ObjectMapper jsonMapper = new ObjectMapper();
+
     @InjectMocks
     private UserController userController;
 
 
     private ObjectMapper objectMapper;
 
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
     @BeforeEach
     void setUp() {
+        // the converters JacksonConfig declares, each from its own builder as Spring Boot injects them
+        JacksonConfig jacksonConfig = new JacksonConfig();
+        cborConverter = jacksonConfig.cborHttpMessageConverter(jacksonBuilder(jacksonConfig));
+        smileConverter = jacksonConfig.smileHttpMessageConverter(jacksonBuilder(jacksonConfig));
         mockMvc = MockMvcBuilders.standaloneSetup(userController)
                 .setValidator(new LocalValidatorFactoryBean())
+                .setMessageConverters(
+                        new MappingJackson2HttpMessageConverter(jacksonBuilder(jacksonConfig).build()),
+                        cborConverter,
+                        smileConverter)
                 .build();
         objectMapper = new ObjectMapper();
+        ReflectionTestUtils.setField(userController, "batchMaxSize", 3);
     }
 
     @Test
@@ -78,6 +135,23 @@ class UserControllerTest {
 
     }
 
+    @Test
+    void testGetUser() throws Exception {
+        Long userId = 1L;
+        User user = new User().setEmail("test@example.com");
+        user.setId(userId);
+
+        when(userService.getById(userId)).thenReturn(user);
+        when(userMapper.toDTO(user)).thenReturn(new UserDTO().setId(userId).setEmail(user.getEmail()));
+
+        mockMvc.perform(get("/users/{userId}", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.id").value(userId))
+                .andExpect(jsonPath("$.data.email").value(user.getEmail()));
+
+        verify(userService, times(1)).getById(userId);
+    }
+
     @Test
     void testUpdateUser() throws Exception {
         Long userId = 1L;
@@ -104,7 +178,7 @@ class UserControllerTest {
 
         when(userMapper.toModel(any(UserDTO.class))).thenReturn(updatedUser);
         when(userMapper.toDTO(any(User.class))).thenReturn(updatedUserDTO);
-        when(userService.update(any(User.class))).thenReturn(updatedUser);
+        when(userService.update(any(User.class), isNull())).thenReturn(updatedUser);
 
         mockMvc.perform(put("/users/{userId}", userId)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -118,7 +192,7 @@ class UserControllerTest {
 
         verify(userMapper).toModel(any(UserDTO.class));
         verify(userMapper).toDTO(any(User.class));
-        verify(userService).update(any(User.class));
+        verify(userService).update(any(User.class), isNull());
     }
 
     @Test
@@ -144,7 +218,7 @@ class UserControllerTest {
 
         when(userMapper.toModel(any(UserDTO.class))).thenReturn(updatedUser);
         when(userMapper.toDTO(any(User.class))).thenReturn(updatedUserDTO);
-        when(userService.updateSomeFields(any(User.class))).thenReturn(updatedUser);
+        when(userService.updateSomeFields(any(User.class), isNull())).thenReturn(updatedUser);
 
 
         mockMvc.perform(patch("/users/{userId}", userId)
@@ -159,7 +233,7 @@ class UserControllerTest {
 
         verify(userMapper).toModel(any(UserDTO.class));
         verify(userMapper).toDTO(any(User.class));
-        verify(userService).updateSomeFields(any(User.class));
+        verify(userService).updateSomeFields(any(User.class), isNull());
     }
 
     @Test
@@ -172,6 +246,33 @@ class UserControllerTest {
         verify(userService, times(1)).delete(userId);
     }
 
+    @Test
+    void testDeleteUsers() throws Exception {
+        when(userService.deleteAll(List.of(1L, 2L, 3L))).thenReturn(new BatchDeleteResult(2, List.of(3L)));
+
+        mockMvc.perform(delete("/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, 2, 3]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.deleted").value(2))
+                .andExpect(jsonPath("$.data.missing_ids", hasSize(1)))
+                .andExpect(jsonPath("$.data.missing_ids[0]").value(3));
+    }
+
+    @Test
+    void testDeleteUsersByBirthDateRange() throws Exception {
+        long from = Instant.parse("2000-01-01T00:00:00Z").toEpochMilli();
+        long to = Instant.parse("2000-12-31T23:59:59Z").toEpochMilli();
+
+        when(userService.deleteByBirthDateBetween(new Date(from), new Date(to))).thenReturn(new BatchDeleteResult(42, List.of()));
+
+        mockMvc.perform(delete("/users")
+                        .param("from", String.valueOf(from))
+                        .param("to", String.valueOf(to)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.deleted").value(42));
+    }
+
     @Test
     void testGetUsersByBirthDateRange() throws Exception {
         long from = Instant.parse("2000-01-01T00:00:00Z").toEpochMilli();
@@ -179,22 +280,434 @@ class UserControllerTest {
         int page = 0;
         int size = 5;
 
-        List<User> userList = Arrays.asList(
-                new User(), new User(), new User()
+        List<UserRow> userList = Arrays.asList(
+                row(1L, "a@example.com"), row(2L, "b@example.com"), row(3L, "c@example.com")
         );
-        Page<User> pageData = new PageImpl<>(userList);
+        Page<UserRow> pageData = new PageImpl<>(userList);
 
         when(userService.findByBirthDateBetween(any(Date.class), any(Date.class), eq(size), eq(page)))
                 .thenReturn(pageData);
 
+        stubRangeVersion();
         mockMvc.perform(get("/users/search")
                         .param("from", String.valueOf(from))
                         .param("to", String.valueOf(to))
                         .param("page", String.valueOf(page))
                         .param("size", String.valueOf(size)))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3-1700000000000-0-5\""))
                 .andExpect(jsonPath("$.data", hasSize(userList.size())));
 
         verify(userService, times(1)).findByBirthDateBetween(any(Date.class), any(Date.class), eq(size), eq(page));
     }
+
+    @Test
+    void testCreateUsers() throws Exception {
+        UserDTO valid = new UserDTO()
+                .setEmail("test@example.com")
+                .setFirstName("John")
+                .setLastName("Doe")
+                .setBirthDate(new Date(1049222400000L)); // 2003-04-04
+        UserDTO invalid = new UserDTO()
+                .setEmail("not-an-email")
+                .setFirstName("John")
+                .setLastName("Doe")
+                .setBirthDate(new Date(1049222400000L));
+        UserDTO duplicate = new UserDTO()
+                .setEmail("test@example.com")
+                .setFirstName("Jane")
+                .setLastName("Doe")
+                .setBirthDate(new Date(1049222400000L));
+
+        User created = new User().setEmail(valid.getEmail());
+        created.setId(1L);
+        BatchCreateResult result = new BatchCreateResult();
+        result.created(0, created);
+        result.rejected(1, "User with email test@example.com already exists");
+
+        when(userMapper.toModel(any(UserDTO.class))).thenReturn(new User());
+        when(userMapper.toDTO(created)).thenReturn(new UserDTO().setId(1L).setEmail(valid.getEmail()));
+        when(userService.createAll(anyList())).thenReturn(result);
+
+        mockMvc.perform(post("/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(valid, invalid, duplicate))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.created", hasSize(1)))
+                .andExpect(jsonPath("$.data.created[0].index").value(0))
+                .andExpect(jsonPath("$.data.created[0].data.id").value(1))
+                .andExpect(jsonPath("$.data.rejected", hasSize(2)))
+                .andExpect(jsonPath("$.data.rejected[0].index").value(1))
+                .andExpect(jsonPath("$.data.rejected[1].index").value(2))
+                .andExpect(jsonPath("$.data.rejected[1].errors[0]").value("User with email test@example.com already exists"));
+
+        verify(userMapper, times(2)).toModel(any(UserDTO.class));
+        verify(userService, times(1)).createAll(anyList());
+    }
+
+    @Test
+    void testCreateUsersInBatch_TooLarge() {
+        List<UserDTO> users = List.of(new UserDTO(), new UserDTO(), new UserDTO(), new UserDTO());
+
+        assertThrows(UserBatchTooLargeException.class, () -> userController.createUsers(users));
+        verifyNoInteractions(userService, userMapper);
+    }
+
+    @Test
+    void testGetUsersByBirthDateRangeWithCursor() throws Exception {
+        long from = Instant.parse("2000-01-01T00:00:00Z").toEpochMilli();
+        long to = Instant.parse("2000-12-31T23:59:59Z").toEpochMilli();
+        int size = 2;
+
+        UserRow first = new UserRow(7L, "first@example.com", "John", "Doe", new Date(from), null, null);
+        UserRow last = new UserRow(9L, "last@example.com", "John", "Doe", new Date(from), null, null);
+
+        when(userService.findByBirthDateBetweenAfter(any(Date.class), any(Date.class), isNull(), eq(size)))
+                .thenReturn(new SliceImpl<>(List.of(first, last), PageRequest.ofSize(size), true));
+
+        MvcResult result = mockMvc.perform(get("/users/search")
+                        .param("from", String.valueOf(from))
+                        .param("to", String.valueOf(to))
+                        .param("size", String.valueOf(size))
+                        .param("cursor", ""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"))
+                .andExpect(jsonPath("$.data", hasSize(2)))
+                .andExpect(jsonPath("$.total_elements").doesNotExist())
+                .andExpect(jsonPath("$.next_cursor").exists())
+                .andReturn();
+
+        String nextCursor = objectMapper.readTree(result.getResponse().getContentAsString()).get("next_cursor").asText();
+        UserCursor decoded = UserCursor.decode(nextCursor);
+        assertEquals(9L, decoded.getId());
+        assertEquals(from, decoded.getBirthDate().getTime());
+
+        verify(userService, never()).findByBirthDateBetween(any(Date.class), any(Date.class), anyInt(), anyInt());
+        verify(userService, never()).getVersionByBirthDateBetween(any(Date.class), any(Date.class));
+    }
+
+    @Test
+    void testGetUsersByBirthDateRangeWithoutCount() throws Exception {
+        long from = Instant.parse("2000-01-01T00:00:00Z").toEpochMilli();
+        long to = Instant.parse("2000-12-31T23:59:59Z").toEpochMilli();
+        int page = 1;
+        int size = 2;
+
+        when(userService.findSliceByBirthDateBetween(any(Date.class), any(Date.class), eq(size), eq(page)))
+                .thenReturn(new SliceImpl<>(List.of(row(1L, "a@example.com"), row(2L, "b@example.com")), PageRequest.of(page, size), false));
+
+        mockMvc.perform(get("/users/search")
+                        .param("from", String.valueOf(from))
+                        .param("to", String.valueOf(to))
+                        .param("page", String.valueOf(page))
+                        .param("size", String.valueOf(size))
+                        .param("count", "false"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"))
+                .andExpect(jsonPath("$.data", hasSize(2)))
+                .andExpect(jsonPath("$.current_page").value(page))
+                .andExpect(jsonPath("$.has_next").value(false))
+                .andExpect(jsonPath("$.total_elements").doesNotExist())
+                .andExpect(jsonPath("$.total_pages").doesNotExist());
+
+        verify(userService, never()).findByBirthDateBetween(any(Date.class), any(Date.class), anyInt(), anyInt());
+        verify(userService, never()).estimateCountByBirthDateBetween(any(Date.class), any(Date.class));
+        verify(userService, never()).getVersionByBirthDateBetween(any(Date.class), any(Date.class));
+    }
+
+    @Test
+    void testGetUsersByBirthDateRangeWithEstimatedCount() throws Exception {
+        long from = Instant.parse("2000-01-01T00:00:00Z").toEpochMilli();
+        long to = Instant.parse("2000-12-31T23:59:59Z").toEpochMilli();
+        int size = 2;
+
+        when(userService.findSliceByBirthDateBetween(any(Date.class), any(Date.class), eq(size), eq(0)))
+                .thenReturn(new SliceImpl<>(List.of(row(1L, "a@example.com"), row(2L, "b@example.com")), PageRequest.of(0, size), true));
+        when(userService.estimateCountByBirthDateBetween(any(Date.class), any(Date.class))).thenReturn(5L);
+
+        mockMvc.perform(get("/users/search")
+                        .param("from", String.valueOf(from))
+                        .param("to", String.valueOf(to))
+                        .param("size", String.valueOf(size))
+                        .param("count", "false")
+                        .param("estimate", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.has_next").value(true))
+                .andExpect(jsonPath("$.total_elements").value(5))
+                .andExpect(jsonPath("$.total_pages").value(3));
+    }
+
+    @Test
+    void testExportUsersByBirthDateRangeAsNdjson() throws Exception {
+        stubExport(row(1L, "first@example.com"), row(2L, "second@example.com"));
+        when(userMapper.toDTO(any(UserRow.class)))
+                .thenAnswer(invocation -> new UserDTO().setEmail(invocation.<UserRow>getArgument(0).email()));
+
+        MvcResult result = mockMvc.perform(get("/users/export")
+                        .param("from", "0")
+                        .param("to", "1000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"email\":\"first@example.com\"}\n{\"email\":\"second@example.com\"}\n"));
+    }
+
+    @Test
+    void testExportUsersByBirthDateRangeAsCsv() throws Exception {
+        stubExport(row(7L, "john@example.com"));
+        when(userMapper.toDTO(any(UserRow.class))).thenReturn(new UserDTO()
+                .setId(7L)
+                .setEmail("john@example.com")
+                .setFirstName("John")
+                .setLastName("Doe")
+                .setBirthDate(java.sql.Date.valueOf("1990-01-01"))
+                .setAddress("1 Main St, \"Old\" Town"));
+
+        MvcResult result = mockMvc.perform(get("/users/export")
+                        .param("from", "0")
+                        .param("to", "1000")
+                        .param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("id,email,first_name,last_name,birth_date,address,phone_number\r\n" +
+                        "7,john@example.com,John,Doe,1990-01-01,\"1 Main St, \"\"Old\"\" Town\",\r\n"));
+    }
+
+    @Test
+    void testExportUsersByBirthDateRangeWithUnsupportedFormat() {
+        assertThrows(UnsupportedExportFormatException.class,
+                () -> userController.exportUsersByBirthDateRange(0L, 1000L, "xml"));
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void testImportUsers() throws Exception {
+        UserImportJob job = new UserImportJob(null);
+        when(userImportService.start(eq(ImportFormat.CSV), any())).thenReturn(job);
+
+        mockMvc.perform(post("/users/import")
+                        .param("format", "csv")
+                        .contentType("text/csv")
+                        .content("email,first_name,last_name,birth_date\r\n"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/users/import/" + job.getId()))
+                .andExpect(jsonPath("$.data.id").value(job.getId().toString()))
+                .andExpect(jsonPath("$.data.status").value("QUEUED"));
+    }
+
+    @Test
+    void testGetUserNotModified() throws Exception {
+        User user = new User().setEmail("test@example.com");
+        user.setId(1L);
+        user.setLastModifiedDate(1700000000000L);
+        when(userService.getById(1L)).thenReturn(user);
+
+        mockMvc.perform(get("/users/{userId}", 1L)
+                        .header("If-None-Match", "\"1700000000000\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1700000000000\""))
+                .andExpect(content().string(""));
+
+        verifyNoInteractions(userMapper);
+    }
+
+    @Test
+    void testGetUsersByBirthDateRangeNotModified() throws Exception {
+        when(userService.getVersionByBirthDateBetween(any(Date.class), any(Date.class)))
+                .thenReturn(new UserRangeVersion(1700000000000L, 3));
+
+        mockMvc.perform(get("/users/search")
+                        .param("from", "0")
+                        .param("to", "1000")
+                        .header("If-None-Match", "\"3-1700000000000-0-5\""))
+                .andExpect(status().isNotModified());
+
+        verify(userService, never()).findByBirthDateBetween(any(Date.class), any(Date.class), anyInt(), anyInt());
+    }
+
+    @Test
+    void testGetUsersByBirthDateRangeOtherPageModified() throws Exception {
+        when(userService.findByBirthDateBetween(any(Date.class), any(Date.class), eq(5), eq(1)))
+                .thenReturn(new PageImpl<>(List.of()));
+        stubRangeVersion();
+
+        // the ETag of page 0 says nothing about page 1
+        mockMvc.perform(get("/users/search")
+                        .param("from", "0")
+                        .param("to", "1000")
+                        .param("page", "1")
+                        .header("If-None-Match", "\"3-1700000000000-0-5\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3-1700000000000-1-5\""));
+    }
+
+    @Test
+    void testUpdateUserIfMatch() throws Exception {
+        UserDTO userDTO = new UserDTO()
+                .setEmail("test@example.com")
+                .setFirstName("John")
+                .setLastName("Doe")
+                .setBirthDate(new Date(1049222400000L));
+        User updatedUser = new User();
+        updatedUser.setLastModifiedDate(1700000000001L);
+        when(userMapper.toModel(any(UserDTO.class))).thenReturn(new User());
+        when(userService.update(any(User.class), eq(1700000000000L))).thenReturn(updatedUser);
+        when(userMapper.toDTO(updatedUser)).thenReturn(userDTO);
+
+        mockMvc.perform(put("/users/{userId}", 1L)
+                        .header("If-Match", "\"1700000000000\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userDTO)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1700000000001\""));
+    }
+
+    @Test
+    void testCreateUserAsCbor() throws Exception {
+        ObjectMapper cborMapper = new CBORMapper();
+        UserDTO userDTO = new UserDTO()
+                .setId(99L)
+                .setEmail("test@example.com")
+                .setFirstName("John")
+                .setLastName("Doe")
+                .setBirthDate(new Date(1049222400000L)); // 2003-04-04
+        User created = new User().setEmail(userDTO.getEmail());
+        when(userMapper.toModel(any(UserDTO.class))).thenReturn(created);
+        when(userService.create(created)).thenReturn(created);
+        when(userMapper.toDTO(created)).thenReturn(new UserDTO().setId(1L).setEmail(userDTO.getEmail()));
+
+        MvcResult result = mockMvc.perform(post("/users")
+                        .contentType(CBOR)
+                        .accept(CBOR)
+                        .content(cborMapper.writeValueAsBytes(userDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(CBOR))
+                .andReturn();
+
+        JsonNode body = cborMapper.readTree(result.getResponse().getContentAsByteArray());
+        assertEquals(1L, body.at("/data/id").asLong());
+        assertEquals("test@example.com", body.at("/data/email").asText());
+        // the Input view drops the id, as it does for JSON
+        verify(userMapper).toModel(argThat(dto -> dto.getId() == null && "John".equals(dto.getFirstName())));
+    }
+
+    @Test
+    void testCreateUserAsCbor_Invalid() throws Exception {
+        UserDTO userDTO = new UserDTO()
+                .setEmail("not-an-email")
+                .setFirstName("John")
+                .setLastName("Doe")
+                .setBirthDate(new Date(1049222400000L));
+
+        mockMvc.perform(post("/users")
+                        .contentType(CBOR)
+                        .content(new CBORMapper().writeValueAsBytes(userDTO)))
+                .andExpect(status().isBadRequest());
+
+        verify(userService, never()).create(any(User.class));
+    }
+
+    @Test
+    void testUpdateSomeUserFieldsAsSmile() throws Exception {
+        ObjectMapper smileMapper = new SmileMapper();
+        UserDTO userDTO = new UserDTO()
+                .setEmail("test@example.com")
+                .setFirstName("Johnny")
+                .setLastName("Doe")
+                .setBirthDate(new Date(1049222400000L))
+                .setAddress("ignored by the InputSomeFields view");
+        User updated = new User().setFirstName("Johnny");
+        updated.setId(1L);
+        when(userMapper.toModel(any(UserDTO.class))).thenReturn(updated);
+        when(userService.updateSomeFields(updated, null)).thenReturn(updated);
+        when(userMapper.toDTO(updated)).thenReturn(new UserDTO().setId(1L).setFirstName("Johnny"));
+
+        MvcResult result = mockMvc.perform(patch("/users/{userId}", 1L)
+                        .contentType(SMILE)
+                        .accept(SMILE)
+                        .content(smileMapper.writeValueAsBytes(userDTO)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SMILE))
+                .andReturn();
+
+        assertEquals("Johnny", smileMapper.readTree(result.getResponse().getContentAsByteArray()).at("/data/firstName").asText());
+        verify(userMapper).toModel(argThat(dto -> dto.getAddress() == null && "Johnny".equals(dto.getFirstName())));
+    }
+
+    @Test
+    void testGetUsersByBirthDateRangeAsCbor() throws Exception {
+        when(userService.findByBirthDateBetween(any(Date.class), any(Date.class), eq(5), eq(0)))
+                .thenReturn(new PageImpl<>(List.of(row(1L, "a@example.com"))));
+        when(userMapper.toDTO(any(UserRow.class))).thenReturn(new UserDTO().setId(1L).setEmail("a@example.com"));
+        stubRangeVersion();
+
+        MvcResult result = mockMvc.perform(get("/users/search")
+                        .param("from", "0")
+                        .param("to", "1000")
+                        .accept(CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(CBOR))
+                .andExpect(header().string("Vary", "Accept"))
+                .andReturn();
+
+        JsonNode body = new CBORMapper().readTree(result.getResponse().getContentAsByteArray());
+        assertEquals("a@example.com", body.at("/data/0/email").asText());
+        assertEquals(1L, body.at("/total_elements").asLong());
+    }
+
+    @Test
+    void testBinaryConvertersUseUserJsonModule() {
+        String moduleId = new UserJsonModule().getTypeId().toString();
+
+        assertTrue(cborConverter.getObjectMapper().getRegisteredModuleIds().contains(moduleId));
+        assertTrue(smileConverter.getObjectMapper().getRegisteredModuleIds().contains(moduleId));
+    }
+
+    @Test
+    void testGetUserVariesByAccept() throws Exception {
+        User user = new User().setEmail("test@example.com");
+        user.setId(1L);
+        user.setLastModifiedDate(1700000000000L);
+        when(userService.getById(1L)).thenReturn(user);
+        when(userMapper.toDTO(user)).thenReturn(new UserDTO().setId(1L).setEmail("test@example.com"));
+
+        mockMvc.perform(get("/users/{userId}", 1L).accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SMILE))
+                .andExpect(header().string("Vary", "Accept"));
+        mockMvc.perform(get("/users/{userId}", 1L)
+                        .accept(CBOR)
+                        .header("If-None-Match", "\"1700000000000\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("Vary", "Accept"));
+    }
+
+    private static Jackson2ObjectMapperBuilder jacksonBuilder(JacksonConfig jacksonConfig) {
+        return new Jackson2ObjectMapperBuilder().modules(jacksonConfig.userJsonModule());
+    }
+
+    private static UserRow row(Long id, String email) {
+        return new UserRow(id, email, "John", "Doe", new Date(1049222400000L), null, null);
+    }
+
+    private void stubRangeVersion() {
+        when(userService.getVersionByBirthDateBetween(any(Date.class), any(Date.class)))
+                .thenReturn(new UserRangeVersion(1700000000000L, 3));
+    }
+
+    private void stubExport(UserRow... users) {
+        doAnswer(invocation -> {
+            Consumer<UserRow> action = invocation.getArgument(2);
+            for (UserRow user : users) {
+                action.accept(user);
+            }
+            return null;
+        }).when(userService).exportByBirthDateBetween(any(Date.class), any(Date.class), any());
+    }
 }
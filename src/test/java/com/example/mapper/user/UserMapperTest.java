@@ -0,0 +1,90 @@
+package com.example.mapper.user;
+
+import com.example.domain.User;
+import com.example.dto.user.UserDTO;
+import com.example.mapper.user.imp.UserMapper;
+import com.example.repository.projection.UserRow;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.Conditions;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserMapperTest {
+
+    private final UserMapper userMapper = new UserMapper();
+
+    // the configuration UserMapper used to delegate to
+    private final ModelMapper modelMapper = new ModelMapper();
+
+    {
+        modelMapper.getConfiguration()
+                .setMatchingStrategy(MatchingStrategies.STRICT)
+                .setPropertyCondition(Conditions.isNotNull())
+                .setSkipNullEnabled(true);
+    }
+
+    @Test
+    void testToDTO_MatchesModelMapper() {
+        User user = new User()
+                .setEmail("test@example.com")
+                .setFirstName("John")
+                .setLastName("Doe")
+                .setBirthDate(new java.sql.Date(1049414400000L)) // 2003-04-04, as loaded by Hibernate
+                .setPhoneNumber("1234567890");
+        user.setId(1L);
+        user.setCreatedBy("manager");
+
+        UserDTO expected = modelMapper.map(user, UserDTO.class);
+        UserDTO actual = userMapper.toDTO(user);
+
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getEmail(), actual.getEmail());
+        assertEquals(expected.getFirstName(), actual.getFirstName());
+        assertEquals(expected.getLastName(), actual.getLastName());
+        assertEquals(expected.getBirthDate().getClass(), actual.getBirthDate().getClass());
+        assertEquals(expected.getBirthDate().getTime(), actual.getBirthDate().getTime());
+        assertNull(actual.getAddress());
+        assertEquals(expected.getPhoneNumber(), actual.getPhoneNumber());
+    }
+
+    @Test
+    void testToDTO_FromRow() {
+        UserRow row = new UserRow(1L, "test@example.com", "John", "Doe", new java.sql.Date(1049414400000L),
+                null, "1234567890");
+
+        UserDTO actual = userMapper.toDTO(row);
+
+        assertEquals(1L, actual.getId());
+        assertEquals("test@example.com", actual.getEmail());
+        assertEquals("John", actual.getFirstName());
+        assertEquals("Doe", actual.getLastName());
+        assertSame(row.birthDate(), actual.getBirthDate());
+        assertNull(actual.getAddress());
+        assertEquals("1234567890", actual.getPhoneNumber());
+    }
+
+    @Test
+    void testToModel_MatchesModelMapper() {
+        UserDTO userDTO = new UserDTO()
+                .setEmail("test@example.com")
+                .setFirstName("John")
+                .setBirthDate(new Date(1049414400000L))
+                .setAddress("123 Main St");
+
+        User expected = modelMapper.map(userDTO, User.class);
+        User actual = userMapper.toModel(userDTO);
+
+        assertNull(actual.getId());
+        assertEquals(expected.getEmail(), actual.getEmail());
+        assertEquals(expected.getFirstName(), actual.getFirstName());
+        assertNull(actual.getLastName());
+        assertEquals(expected.getBirthDate(), actual.getBirthDate());
+        assertEquals(expected.getAddress(), actual.getAddress());
+        assertNull(actual.getPhoneNumber());
+        assertNull(actual.getCreatedBy());
+    }
+}
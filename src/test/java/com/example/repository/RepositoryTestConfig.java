@@ -0,0 +1,22 @@
+package com.example.repository;
+
+import com.example.repository.imp.UserAuditStatements;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.AuditorAware;
+
+import java.util.Optional;
+
+/**
+ * Beans the repository fragments need that a {@code @DataJpaTest} slice does not scan.
+ */
+@TestConfiguration
+@Import({RevisionNumberAllocator.class, UserAuditStatements.class})
+class RepositoryTestConfig {
+
+    @Bean
+    AuditorAware<String> auditorProvider() {
+        return () -> Optional.of("test");
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.repository;
+
+import com.example.RequiresDocker;
+import com.example.domain.User;
+import com.example.repository.projection.DeletedUser;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@RequiresDocker
+@Testcontainers
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(RepositoryTestConfig.class)
+class UserBulkDeleteRepositoryTest {
+
+    private static final long DAY = 86400000L;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testBulkDeleteByIdsSkipsMissingAndSharesOneRevision() {
+        List<Long> ids = new ArrayList<>(saveUsers(5, new Date(631152000000L)));
+        ids.add(-1L);
+
+        List<DeletedUser> deleted = userRepository.bulkDeleteByIds(ids, 2);
+
+        assertEquals(5, deleted.size());
+        assertEquals(0, userRepository.findAllById(ids).size());
+        assertEquals(1L, jdbcTemplate.queryForObject(
+                "SELECT count(DISTINCT rev) FROM service_user_aud WHERE revtype = 2 AND id = ANY (?::bigint[])",
+                Long.class, toArrayLiteral(ids)));
+    }
+
+    @Test
+    void testBulkDeleteByBirthDateBetweenDeletesOnlyTheRange() {
+        Date start = new Date(631152000000L);
+        saveUsers(7, start);
+
+        List<DeletedUser> deleted = userRepository.bulkDeleteByBirthDateBetween(start, new Date(start.getTime() + 4 * DAY), 2);
+
+        assertEquals(5, deleted.size());
+        assertEquals(2, userRepository.countByBirthDateBetween(start, new Date(start.getTime() + 10 * DAY)));
+    }
+
+    // one user per day from start
+    private List<Long> saveUsers(int count, Date start) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            users.add(new User()
+                    .setEmail("bulk" + i + "-" + start.getTime() + "@example.com")
+                    .setFirstName("Jane")
+                    .setLastName("Doe")
+                    .setBirthDate(new Date(start.getTime() + i * DAY)));
+        }
+        return userRepository.saveAllAndFlush(users).stream().map(User::getId).toList();
+    }
+
+    private static String toArrayLiteral(List<Long> ids) {
+        return ids.toString().replace('[', '{').replace(']', '}').replace(" ", "");
+    }
+}
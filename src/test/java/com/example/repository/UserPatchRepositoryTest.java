@@ -0,0 +1,98 @@
+package com.example.repository;
+
+import com.example.RequiresDocker;
+import com.example.domain.User;
+import com.example.repository.projection.UserPatchResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@RequiresDocker
+@Testcontainers
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(RepositoryTestConfig.class)
+class UserPatchRepositoryTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User existing;
+
+    @BeforeEach
+    void setUp() {
+        existing = userRepository.saveAndFlush(newUser("existing@example.com"));
+        userRepository.saveAndFlush(newUser("taken@example.com"));
+    }
+
+    @Test
+    void testPatchUpdatesGivenFieldsAndWritesRevision() {
+        User changes = new User().setFirstName("John");
+        changes.setId(existing.getId());
+
+        UserPatchResult result = userRepository.patch(changes, null).orElseThrow();
+
+        assertEquals("existing@example.com", result.previousEmail());
+        assertEquals("John", result.user().getFirstName());
+        assertEquals("Doe", result.user().getLastName());
+        assertEquals("test", result.user().getLastModifiedBy());
+        assertNotNull(result.user().getLastModifiedDate());
+
+        Map<String, Object> audit = jdbcTemplate.queryForMap(
+                "SELECT a.revtype, a.first_name, r.revtstmp FROM service_user_aud a JOIN revinfo r ON r.rev = a.rev " +
+                "WHERE a.id = ? ORDER BY a.rev DESC LIMIT 1", existing.getId());
+        assertEquals((short) 1, ((Number) audit.get("revtype")).shortValue());
+        assertEquals("John", audit.get("first_name"));
+        assertEquals(result.user().getLastModifiedDate(), ((Number) audit.get("revtstmp")).longValue());
+    }
+
+    @Test
+    void testPatchTellsMissingUserFromVersionMismatch() {
+        User missing = new User().setFirstName("John");
+        missing.setId(-1L);
+        assertEquals(Optional.empty(), userRepository.patch(missing, null));
+
+        User changes = new User().setFirstName("John");
+        changes.setId(existing.getId());
+        UserPatchResult result = userRepository.patch(changes, 1L).orElseThrow();
+        assertNull(result.user());
+    }
+
+    @Test
+    void testPatchRejectsTakenEmail() {
+        User changes = new User().setEmail("taken@example.com");
+        changes.setId(existing.getId());
+
+        assertThrows(DuplicateKeyException.class, () -> userRepository.patch(changes, null));
+    }
+
+    private static User newUser(String email) {
+        return new User()
+                .setEmail(email)
+                .setFirstName("Jane")
+                .setLastName("Doe")
+                .setBirthDate(new Date(631152000000L));
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.repository;
+
+import com.example.RequiresDocker;
+import com.example.domain.User;
+import com.example.repository.projection.UserRow;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.util.Date;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs every repository method against the migrated schema and fails when Postgres can only answer one of the
+ * statements it sends with a sequential scan of {@code service_user}. The statements are recorded at the JDBC
+ * connection, so the set-based ones the repository fragments send through {@code JdbcTemplate} (bulk deletes,
+ * PATCH) are checked too. Sequential scans are disabled for the session, so the planner falls back to one only
+ * when no index applies.
+ */
+@RequiresDocker
+@Testcontainers
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({RepositoryTestConfig.class, UserRepositoryIndexTest.TestConfig.class})
+class UserRepositoryIndexTest {
+
+    private static final Pattern SEQ_SCAN = Pattern.compile("Seq Scan on service_user\\b");
+
+    // statements that read service_user; plain inserts have nothing to look up
+    private static final Pattern PLANNED = Pattern.compile("\\s*(select|with|update|delete)\\b", Pattern.CASE_INSENSITIVE);
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testRepositoryQueriesUseIndexes() {
+        Date from = new Date(1049222400000L); // 2003-04-04
+        Date to = new Date(1080758400000L); // 2004-04-04
+
+        User changes = new User().setFirstName("John");
+        changes.setId(1L);
+
+        RecordingDataSource.clear();
+        userRepository.findByBirthDateBetween(from, to, PageRequest.of(1, 5));
+        userRepository.findSliceByBirthDateBetween(from, to, PageRequest.of(1, 5));
+        userRepository.countByBirthDateBetween(from, to);
+        userRepository.findVersionByBirthDateBetween(from, to);
+        userRepository.findByBirthDateBetweenOrderByBirthDateAscIdAsc(from, to, PageRequest.ofSize(5));
+        userRepository.findByBirthDateBetweenAfter(from, to, from, 1L, PageRequest.ofSize(5));
+        userRepository.existsByEmail("test@example.com");
+        userRepository.existsByEmailAndNotId("test@example.com", 1L);
+        userRepository.findExistingEmails(List.of("test@example.com", "other@example.com"));
+        userRepository.findById(1L);
+        userRepository.findForUpdateById(1L);
+        try (Stream<UserRow> users = userRepository.streamByBirthDateBetween(from, to)) {
+            users.findFirst();
+        }
+        try (Stream<String> emails = userRepository.streamAllEmails()) {
+            emails.findFirst();
+        }
+        userRepository.bulkDeleteByIds(List.of(1L, 2L), 10);
+        userRepository.bulkDeleteByBirthDateBetween(from, to, 10);
+        userRepository.patch(changes, 1L);
+
+        List<String> queries = RecordingDataSource.statements().stream()
+                .filter(sql -> PLANNED.matcher(sql).lookingAt())
+                .toList();
+        assertFalse(queries.isEmpty());
+
+        jdbcTemplate.execute("SET enable_seqscan = off");
+        for (String sql : queries) {
+            String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN (GENERIC_PLAN) " + toPositional(sql), String.class));
+            assertFalse(SEQ_SCAN.matcher(plan).find(), () -> "Query runs without an index:\n" + sql + "\n" + plan);
+        }
+    }
+
+    @TestConfiguration
+    static class TestConfig {
+
+        @Bean
+        static BeanPostProcessor recordingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? new RecordingDataSource(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    private static String toPositional(String sql) {
+        Matcher matcher = Pattern.compile("\\?").matcher(sql);
+        StringBuilder positional = new StringBuilder();
+        int index = 0;
+        while (matcher.find()) {
+            matcher.appendReplacement(positional, "\\$" + ++index);
+        }
+        return matcher.appendTail(positional).toString();
+    }
+}
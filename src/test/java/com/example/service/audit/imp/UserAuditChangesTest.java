@@ -0,0 +1,51 @@
+package com.example.service.audit.imp;
+
+import com.example.domain.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserAuditChangesTest {
+
+    @Test
+    void testAdd_InsertThenUpdateStaysInsertWithLatestState() {
+        UserAuditChanges changes = new UserAuditChanges();
+        changes.add(UserAuditChanges.ADD, user(1L, "first@example.com"));
+        changes.add(UserAuditChanges.MOD, user(1L, "second@example.com"));
+
+        List<UserAuditChanges.Change> result = List.copyOf(changes.getChanges());
+        assertEquals(1, result.size());
+        assertEquals(UserAuditChanges.ADD, result.get(0).revisionType());
+        assertEquals("second@example.com", result.get(0).state().getEmail());
+    }
+
+    @Test
+    void testAdd_InsertThenDeleteLeavesNothing() {
+        UserAuditChanges changes = new UserAuditChanges();
+        changes.add(UserAuditChanges.ADD, user(1L, "first@example.com"));
+        changes.add(UserAuditChanges.DEL, user(1L, null));
+
+        assertTrue(changes.getChanges().isEmpty());
+    }
+
+    @Test
+    void testAdd_UpdateThenDeleteIsDelete() {
+        UserAuditChanges changes = new UserAuditChanges();
+        changes.add(UserAuditChanges.MOD, user(1L, "first@example.com"));
+        changes.add(UserAuditChanges.DEL, user(1L, null));
+        changes.add(UserAuditChanges.MOD, user(2L, "other@example.com"));
+
+        List<UserAuditChanges.Change> result = List.copyOf(changes.getChanges());
+        assertEquals(2, result.size());
+        assertEquals(UserAuditChanges.DEL, result.get(0).revisionType());
+        assertEquals(UserAuditChanges.MOD, result.get(1).revisionType());
+    }
+
+    private static User user(Long id, String email) {
+        User user = new User().setEmail(email);
+        user.setId(id);
+        return user;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.service.audit.imp;
+
+import com.example.repository.RevisionNumberAllocator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserAuditOutboxTest {
+
+    private static final String SELECT_BATCH = "SELECT id, tx_id, revtstmp FROM user_audit_outbox ORDER BY";
+
+    private static final String SELECT_REST = "SELECT id, tx_id, revtstmp FROM user_audit_outbox WHERE tx_id";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private RevisionNumberAllocator revisionNumbers;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Captor
+    private ArgumentCaptor<List<Object[]>> revinfo;
+
+    @Captor
+    private ArgumentCaptor<List<Object[]>> audits;
+
+    @Test
+    void testFlushPending_TransactionLargerThanBatch_OneRevision() {
+        UUID txId = UUID.randomUUID();
+        when(jdbcTemplate.query(startsWith(SELECT_BATCH), any(RowMapper.class), eq(3)))
+                .thenAnswer(rows(txId, 1, 2, 3))
+                .thenAnswer(rows(txId));
+        when(jdbcTemplate.queryForObject(startsWith("SELECT EXISTS"), eq(Boolean.class), eq(txId), eq(1L))).thenReturn(false);
+        when(jdbcTemplate.query(startsWith(SELECT_REST), any(RowMapper.class), eq(txId), eq(3L)))
+                .thenAnswer(rows(txId, 4, 5));
+        when(revisionNumbers.next()).thenReturn(7);
+
+        outbox(3).flushPending();
+
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO revinfo"), revinfo.capture());
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO service_user_aud"), audits.capture());
+        assertEquals(1, revinfo.getValue().size());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), audits.getValue().stream().map(audit -> audit[1]).toList());
+        verify(revisionNumbers, times(1)).next();
+    }
+
+    @Test
+    void testFlushPending_TransactionStartedElsewhere_Skipped() {
+        UUID elsewhere = UUID.randomUUID();
+        UUID txId = UUID.randomUUID();
+        when(jdbcTemplate.query(startsWith(SELECT_BATCH), any(RowMapper.class), eq(5)))
+                .thenAnswer(combined(rows(elsewhere, 4, 5), rows(txId, 6)))
+                .thenAnswer(rows(txId));
+        // rows 1..3 of the first transaction are locked by another instance
+        when(jdbcTemplate.queryForObject(startsWith("SELECT EXISTS"), eq(Boolean.class), eq(elsewhere), eq(4L))).thenReturn(true);
+        when(revisionNumbers.next()).thenReturn(7);
+
+        outbox(5).flushPending();
+
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO service_user_aud"), audits.capture());
+        assertEquals(List.of(6L), audits.getValue().stream().map(audit -> audit[1]).toList());
+    }
+
+    @Test
+    void testRecordCommitted_FullBatch_FlushesOnOwnThread() throws Exception {
+        CompletableFuture<String> flushThread = new CompletableFuture<>();
+        when(jdbcTemplate.query(startsWith(SELECT_BATCH), any(RowMapper.class), eq(2))).thenAnswer(invocation -> {
+            flushThread.complete(Thread.currentThread().getName());
+            return List.of();
+        });
+        UserAuditOutbox outbox = outbox(2);
+        try {
+            outbox.recordCommitted(2);
+
+            assertEquals("audit-outbox-flush", flushThread.get(5, TimeUnit.SECONDS));
+        } finally {
+            outbox.shutdown();
+        }
+    }
+
+    private UserAuditOutbox outbox(int flushSize) {
+        return new UserAuditOutbox(jdbcTemplate, revisionNumbers, transactionManager, new SimpleMeterRegistry(), flushSize, 1000);
+    }
+
+    // outbox rows as the query's row mapper reads them
+    private static Answer<List<Object>> rows(UUID txId, long... ids) {
+        return invocation -> {
+            RowMapper<?> mapper = invocation.getArgument(1);
+            List<Object> rows = new ArrayList<>();
+            for (long id : ids) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getLong("id")).thenReturn(id);
+                when(rs.getObject("tx_id", UUID.class)).thenReturn(txId);
+                when(rs.getLong("revtstmp")).thenReturn(1700000000000L);
+                rows.add(mapper.mapRow(rs, rows.size()));
+            }
+            return rows;
+        };
+    }
+
+    private static Answer<List<Object>> combined(Answer<List<Object>> first, Answer<List<Object>> second) {
+        return invocation -> {
+            List<Object> rows = new ArrayList<>(first.answer(invocation));
+            rows.addAll(second.answer(invocation));
+            return rows;
+        };
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.service.user;
+
+import com.example.domain.User;
+import com.example.exception.imports.ImportQueueFullException;
+import com.example.exception.imports.ImportUploadTooLargeException;
+import com.example.mapper.user.imp.UserMapper;
+import com.example.service.user.imp.UserImportService;
+import com.example.util.handler.AdultAgeCutoff;
+import com.example.util.handler.UserDTOValidator;
+import com.example.util.imports.ImportFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserImportServiceTest {
+
+    @Mock
+    private IUserService userService;
+
+    private UserImportService userImportService;
+
+    @BeforeEach
+    void setUp() {
+        userImportService = new UserImportService(userService, new UserMapper(),
+                new UserDTOValidator(Validation.buildDefaultValidatorFactory().getValidator(),
+                        new AdultAgeCutoff(18, Clock.systemDefaultZone()), Clock.systemDefaultZone()),
+                new ObjectMapper(), new SimpleMeterRegistry(),
+                2, 1, 0, 1, 1024, DataSize.ofKilobytes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        userImportService.shutdown();
+    }
+
+    @Test
+    void testStart_CreatesValidRecordsInBatchesAndReportsRejected() throws Exception {
+        String upload = """
+                {"email":"a@example.com","firstName":"Anna","lastName":"Doe","birthDate":"1990-01-01"}
+                {"email":"not-an-email","firstName":"Bob","lastName":"Doe","birthDate":"1990-01-01"}
+                {"email":"c@example.com","firstName":"Carl","lastName":"Doe","birthDate":"1990-01-01"}
+
+                {"email":
+                {"email":"d@example.com","firstName":"Dora","lastName":"Doe","birthDate":"1990-01-01"}
+                """;
+        List<List<String>> batches = new ArrayList<>();
+        when(userService.createAll(anyList())).thenAnswer(invocation -> {
+            List<User> users = invocation.getArgument(0);
+            batches.add(users.stream().map(User::getEmail).toList());
+            BatchCreateResult result = new BatchCreateResult();
+            for (int i = 0; i < users.size(); i++) {
+                if (users.get(i).getEmail().equals("c@example.com")) {
+                    result.rejected(i, "User with email c@example.com already exists");
+                } else {
+                    result.created(i, users.get(i));
+                }
+            }
+            return result;
+        });
+
+        UserImportJob job = userImportService.start(ImportFormat.NDJSON,
+                new ByteArrayInputStream(upload.getBytes(StandardCharsets.UTF_8)));
+        awaitFinished(job);
+
+        assertEquals(UserImportJob.Status.COMPLETED, job.getStatus());
+        assertEquals(List.of(List.of("a@example.com", "c@example.com"), List.of("d@example.com")), batches);
+        assertEquals(2, job.getCreated().get());
+        assertEquals(3, job.getRejected().get());
+        assertEquals(5, job.getProcessed());
+
+        List<String> errors = Files.readAllLines(job.getErrorFile());
+        assertEquals(3, errors.size());
+        assertTrue(errors.get(0).startsWith("{\"index\":1,\"errors\":[\"email: "));
+        assertEquals("{\"index\":2,\"errors\":[\"User with email c@example.com already exists\"]}", errors.get(1));
+        assertTrue(errors.get(2).startsWith("{\"index\":3,\"errors\":[\"Malformed record: "));
+    }
+
+    @Test
+    void testStart_UploadTooLarge_Rejected() {
+        byte[] upload = new byte[2048];
+
+        assertThrows(ImportUploadTooLargeException.class,
+                () -> userImportService.start(ImportFormat.NDJSON, new ByteArrayInputStream(upload)));
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void testStart_JobAlreadyRunning_QueueFull() throws Exception {
+        String upload = """
+                {"email":"a@example.com","firstName":"Anna","lastName":"Doe","birthDate":"1990-01-01"}
+                """;
+        CountDownLatch release = new CountDownLatch(1);
+        when(userService.createAll(anyList())).thenAnswer(invocation -> {
+            release.await();
+            BatchCreateResult result = new BatchCreateResult();
+            result.created(0, invocation.<List<User>>getArgument(0).get(0));
+            return result;
+        });
+
+        UserImportJob running = userImportService.start(ImportFormat.NDJSON,
+                new ByteArrayInputStream(upload.getBytes(StandardCharsets.UTF_8)));
+        assertThrows(ImportQueueFullException.class, () -> userImportService.start(ImportFormat.NDJSON,
+                new ByteArrayInputStream(upload.getBytes(StandardCharsets.UTF_8))));
+
+        release.countDown();
+        awaitFinished(running);
+        // the slot is given back once the job ends
+        UserImportJob next = userImportService.start(ImportFormat.NDJSON,
+                new ByteArrayInputStream(upload.getBytes(StandardCharsets.UTF_8)));
+        awaitFinished(next);
+    }
+
+    private static void awaitFinished(UserImportJob job) throws InterruptedException {
+        for (int i = 0; i < 500 && (job.getFinishedAt() == null); i++) {
+            Thread.sleep(10);
+        }
+        assertNotNull(job.getFinishedAt(), "import did not finish");
+    }
+}
@@ -1,26 +1,53 @@
 package com.example.service.user;
 
 
+import com.example.config.CacheConfig;
 import com.example.domain.User;
+import com.example.exception.user.InvalidBirthDateRangeException;
+import com.example.exception.user.InvalidUserIdsException;
+import com.example.exception.user.UserVersionMismatchException;
 import com.example.exception.user.UserWithThisEmailAlreadyExistsException;
 import com.example.exception.user.UserWithThisIdNotFoundException;
-import com.example.mapper.util.FieldsUpdaterMapper;
 import com.example.repository.UserRepository;
+import com.example.repository.projection.DeletedUser;
+import com.example.repository.projection.UserPatchResult;
+import com.example.repository.projection.UserRow;
+import com.example.service.audit.IUserAuditOutbox;
+import com.example.service.email.IEmailMembershipFilter;
 import com.example.service.user.imp.UserService;
+import com.example.util.datasource.ReadReplicas;
+import com.example.util.datasource.Replica;
+import com.example.util.datasource.ReplicaSelection;
+import com.example.util.pagination.UserCursor;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
 
-import java.util.ArrayList;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.hibernate.validator.internal.util.Contracts.assertNotNull;
 import static org.junit.jupiter.api.Assertions.*;
@@ -37,8 +64,58 @@ public class UserServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private FieldsUpdaterMapper fieldsUpdaterMapper;
+    private EntityManager entityManager;
 
+    @Mock
+    private IEmailMembershipFilter emailMembershipFilter;
+
+    @Mock
+    private ObjectProvider<IUserAuditOutbox> userAuditOutbox;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(userService, "batchSize", 2);
+        ReflectionTestUtils.setField(userService, "deleteChunkSize", 2);
+        ReflectionTestUtils.setField(userService, "deleteMaxIds", 4);
+    }
+
+    @Test
+    void testGetById_Success() {
+        User existingUser = new User().setEmail("existing@example.com");
+        existingUser.setId(1L);
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(existingUser));
+
+        assertEquals(existingUser, userService.getById(1L));
+    }
+
+    @Test
+    void testGetById_ReadsFromPrimary() {
+        Replica replica = mock(Replica.class);
+        when(replica.isHealthy()).thenReturn(true);
+        ReadReplicas readReplicas = new ReadReplicas(mock(HikariDataSource.class), List.of(replica),
+                ReplicaSelection.ROUND_ROBIN, Duration.ZERO, Optional::empty);
+        User existingUser = new User().setEmail("existing@example.com");
+
+        // the cached user must not come from a replica that may not have seen the last write yet
+        when(userRepository.findById(1L)).thenAnswer(invocation -> {
+            assertNull(readReplicas.selectForRead());
+            return Optional.of(existingUser);
+        });
+
+        assertEquals(existingUser, userService.getById(1L));
+        assertSame(replica, readReplicas.selectForRead());
+    }
+
+    @Test
+    void testGetById_UserNotFound() {
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(UserWithThisIdNotFoundException.class, () -> userService.getById(1L));
+    }
 
     @Test
     void testCreateUser_Success() {
@@ -50,6 +127,7 @@ public class UserServiceTest {
                 .setAddress("123 Main St")
                 .setPhoneNumber("123456789");
 
+        when(emailMembershipFilter.mightExist("test@example.com")).thenReturn(true);
         when(userRepository.existsByEmail("test@example.com")).thenReturn(false);
         when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
             User user = invocation.getArgument(0);
@@ -67,6 +145,45 @@ public class UserServiceTest {
         assertEquals("123456789", savedUser.getPhoneNumber());
         verify(userRepository, times(1)).existsByEmail("test@example.com");
         verify(userRepository, times(1)).save(newUser);
+        verify(emailMembershipFilter).recordFalsePositive();
+        verify(emailMembershipFilter).add("test@example.com");
+    }
+
+    @Test
+    void testCreateUser_EmailNotInFilter() {
+        User newUser = new User()
+                .setEmail("fresh@example.com")
+                .setFirstName("John")
+                .setLastName("Doe")
+                .setBirthDate(new Date());
+
+        when(emailMembershipFilter.mightExist("fresh@example.com")).thenReturn(false);
+        when(userRepository.save(newUser)).thenReturn(newUser);
+
+        userService.create(newUser);
+
+        verify(userRepository, never()).existsByEmail(anyString());
+        verify(userRepository).save(newUser);
+        verify(userRepository).flush();
+        verify(emailMembershipFilter).add("fresh@example.com");
+    }
+
+    @Test
+    void testCreateUser_DuplicateMissedByFilter() {
+        User newUser = new User()
+                .setEmail("fresh@example.com")
+                .setFirstName("John")
+                .setLastName("Doe")
+                .setBirthDate(new Date());
+
+        when(emailMembershipFilter.mightExist("fresh@example.com")).thenReturn(false);
+        // a database created by ddl-auto=update, whose unique constraint has Hibernate's generated name
+        when(userRepository.save(newUser)).thenThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate", new SQLException("duplicate key", "23505"),
+                        "uk6dotkott2kjsp8vw4d0m25fb7")));
+
+        assertThrows(UserWithThisEmailAlreadyExistsException.class, () -> userService.create(newUser));
+        verify(emailMembershipFilter, never()).add(anyString());
     }
 
     @Test
@@ -83,6 +200,7 @@ public class UserServiceTest {
                 .setLastName("Doe")
                 .setBirthDate(new Date());
 
+        when(emailMembershipFilter.mightExist("existing@example.com")).thenReturn(true);
         when(userRepository.existsByEmail("existing@example.com")).thenReturn(true);
 
         assertThrows(UserWithThisEmailAlreadyExistsException.class, () -> userService.create(newUser));
@@ -90,6 +208,28 @@ public class UserServiceTest {
         verify(userRepository, never()).save(newUser);
     }
 
+    @Test
+    void testCreateAll_RejectsExistingAndRepeatedEmails() {
+        User first = new User().setEmail("first@example.com");
+        User existing = new User().setEmail("existing@example.com");
+        User repeated = new User().setEmail("first@example.com");
+
+        when(userRepository.findExistingEmails(List.of("first@example.com", "existing@example.com")))
+                .thenReturn(Set.of("existing@example.com"));
+        when(userRepository.findExistingEmails(List.of("first@example.com")))
+                .thenReturn(Set.of());
+
+        BatchCreateResult result = userService.createAll(List.of(first, existing, repeated));
+
+        assertEquals(List.of(0), List.copyOf(result.getCreated().keySet()));
+        assertEquals(List.of(1, 2), List.copyOf(result.getRejected().keySet()));
+        assertEquals(List.of("User with email first@example.com already exists"), result.getRejected().get(2));
+        verify(userRepository).saveAll(List.of(first));
+        verify(userRepository).saveAll(List.of());
+        verify(userRepository, times(2)).flush();
+        verify(userRepository, never()).existsByEmail(anyString());
+    }
+
     @Test
     void testUpdateUser_Success() {
         User userToUpdate = new User()
@@ -102,13 +242,29 @@ public class UserServiceTest {
         when(userRepository.existsByEmailAndNotId("updated@example.com", 1L)).thenReturn(false);
         when(userRepository.save(userToUpdate)).thenReturn(userToUpdate);
 
-        userService.update(userToUpdate);
+        userService.update(userToUpdate, null);
 
         verify(userRepository).findById(1L);
         verify(userRepository).existsByEmailAndNotId("updated@example.com", 1L);
         verify(userRepository).save(userToUpdate);
     }
 
+    @Test
+    void testUpdateUser_VersionMismatch() {
+        User existingUser = new User().setEmail("old@example.com");
+        existingUser.setId(1L);
+        existingUser.setLastModifiedDate(1700000000001L);
+        User userToUpdate = new User().setEmail("updated@example.com");
+        userToUpdate.setId(1L);
+
+        when(userRepository.findForUpdateById(1L)).thenReturn(Optional.of(existingUser));
+
+        assertThrows(UserVersionMismatchException.class, () -> userService.update(userToUpdate, 1700000000000L));
+
+        verify(userRepository, never()).findById(anyLong());
+        verify(userRepository, never()).save(any(User.class));
+    }
+
     @Test
     void testUpdate_UserNotFound() {
         User userToUpdate = new User()
@@ -119,7 +275,7 @@ public class UserServiceTest {
 
         when(userRepository.findById(1L)).thenReturn(Optional.empty());
 
-        assertThrows(UserWithThisIdNotFoundException.class, () -> userService.update(userToUpdate));
+        assertThrows(UserWithThisIdNotFoundException.class, () -> userService.update(userToUpdate, null));
 
         verify(userRepository).findById(1L);
         verify(userRepository, never()).existsByEmailAndNotId(anyString(), anyLong());
@@ -138,7 +294,7 @@ public class UserServiceTest {
         when(userRepository.findById(1L)).thenReturn(Optional.of(userToUpdate));
         when(userRepository.existsByEmailAndNotId("updated@example.com", 1L)).thenReturn(true);
 
-        assertThrows(UserWithThisEmailAlreadyExistsException.class, () -> userService.update(userToUpdate));
+        assertThrows(UserWithThisEmailAlreadyExistsException.class, () -> userService.update(userToUpdate, null));
 
         verify(userRepository).findById(1L);
         verify(userRepository).existsByEmailAndNotId("updated@example.com", 1L);
@@ -148,13 +304,6 @@ public class UserServiceTest {
 
     @Test
     void testUpdateSomeFields_Success() {
-
-        User existingUser = new User()
-                .setEmail("existing@example.com")
-                .setFirstName("Jane")
-                .setLastName("Doe");
-        existingUser.setId(1L);
-
         User updatedFieldsUser = new User()
                 .setEmail("updated@example.com")
                 .setFirstName("John");
@@ -166,20 +315,18 @@ public class UserServiceTest {
                 .setLastName("Doe");
         resultUser.setId(1L);
 
+        when(userRepository.patch(updatedFieldsUser, null))
+                .thenReturn(Optional.of(new UserPatchResult("existing@example.com", resultUser)));
 
-        when(userRepository.findById(1L)).thenReturn(java.util.Optional.of(existingUser));
-        when(userRepository.existsByEmailAndNotId("updated@example.com", 1L)).thenReturn(false);
-        when(userRepository.save(any(User.class))).thenReturn(resultUser);
-        when(fieldsUpdaterMapper.updateFields(existingUser, updatedFieldsUser)).thenReturn(resultUser);
-
-        User updatedUser = userService.updateSomeFields(updatedFieldsUser);
+        User updatedUser = userService.updateSomeFields(updatedFieldsUser, null);
 
-        verify(userRepository).findById(1L);
-        verify(userRepository).existsByEmailAndNotId("updated@example.com", 1L);
-        verify(fieldsUpdaterMapper).updateFields(existingUser, updatedFieldsUser);
-        verify(userRepository).save(resultUser);
+        verify(userRepository, never()).findById(anyLong());
+        verify(userRepository, never()).existsByEmailAndNotId(anyString(), anyLong());
+        verify(userRepository, never()).save(any(User.class));
+        verify(emailMembershipFilter).add("updated@example.com");
+        verify(emailMembershipFilter).remove("existing@example.com");
 
-        assertEquals(existingUser.getLastName(), updatedUser.getLastName());
+        assertEquals("Doe", updatedUser.getLastName());
     }
 
     @Test
@@ -190,39 +337,53 @@ public class UserServiceTest {
                 .setFirstName("John");
         updatedFieldsUser.setId(1L);
 
-        when(userRepository.findById(1L)).thenReturn(java.util.Optional.empty());
+        when(userRepository.patch(updatedFieldsUser, null)).thenReturn(Optional.empty());
 
-        assertThrows(UserWithThisIdNotFoundException.class, () -> userService.updateSomeFields(updatedFieldsUser));
+        assertThrows(UserWithThisIdNotFoundException.class, () -> userService.updateSomeFields(updatedFieldsUser, null));
 
-        verify(userRepository).findById(1L);
-        verify(userRepository, never()).existsByEmailAndNotId(anyString(), anyLong());
-        verify(fieldsUpdaterMapper, never()).updateFields(any(User.class), any(User.class));
-        verify(userRepository, never()).save(any(User.class));
+        verify(emailMembershipFilter, never()).add(anyString());
     }
 
     @Test
     void testUpdateSomeFields_EmailAlreadyExists() {
-        User existingUser = new User()
-                .setEmail("existing@example.com")
-                .setFirstName("Jane")
-                .setLastName("Doe");
-        existingUser.setId(1L);
-
         User updatedFieldsUser = new User()
                 .setEmail("updated@example.com")
                 .setFirstName("John");
         updatedFieldsUser.setId(1L);
 
-        when(userRepository.findById(1L)).thenReturn(java.util.Optional.of(existingUser));
-        when(userRepository.existsByEmailAndNotId("updated@example.com", 1L)).thenReturn(true);
+        when(userRepository.patch(updatedFieldsUser, null))
+                .thenThrow(new DuplicateKeyException("duplicate key value violates unique constraint"));
 
-        assertThrows(UserWithThisEmailAlreadyExistsException.class, () -> userService.updateSomeFields(updatedFieldsUser));
+        assertThrows(UserWithThisEmailAlreadyExistsException.class, () -> userService.updateSomeFields(updatedFieldsUser, null));
 
-        verify(userRepository).findById(1L);
-        verify(userRepository).existsByEmailAndNotId("updated@example.com", 1L);
-        verify(fieldsUpdaterMapper, never()).updateFields(any(User.class), any(User.class));
-        verify(userRepository, never()).save(any(User.class));
+        verify(emailMembershipFilter, never()).add(anyString());
     }
+
+    @Test
+    void testUpdateSomeFields_VersionMismatch() {
+        User updatedFieldsUser = new User().setFirstName("John");
+        updatedFieldsUser.setId(1L);
+
+        when(userRepository.patch(updatedFieldsUser, 1700000000000L))
+                .thenReturn(Optional.of(new UserPatchResult("existing@example.com", null)));
+
+        assertThrows(UserVersionMismatchException.class, () -> userService.updateSomeFields(updatedFieldsUser, 1700000000000L));
+    }
+
+    @Test
+    void testUpdateSomeFields_NothingToUpdate() {
+        User existingUser = new User().setEmail("existing@example.com");
+        existingUser.setId(1L);
+        User updatedFieldsUser = new User();
+        updatedFieldsUser.setId(1L);
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(existingUser));
+
+        assertEquals(existingUser, userService.updateSomeFields(updatedFieldsUser, null));
+
+        verify(userRepository, never()).patch(any(User.class), any());
+    }
+
     @Test
     void testDelete_Success() {
         Long userId = 1L;
@@ -233,6 +394,63 @@ public class UserServiceTest {
         userService.delete(userId);
 
         verify(userRepository).delete(existingUser);
+        verify(emailMembershipFilter).remove(existingUser.getEmail());
+    }
+
+    @Test
+    void testDeleteAll_ReportsMissingIds() {
+        Cache usersCache = mock(Cache.class);
+        when(cacheManager.getCache(CacheConfig.USERS)).thenReturn(usersCache);
+        when(userRepository.bulkDeleteByIds(Set.of(1L, 2L, 3L), 2))
+                .thenReturn(List.of(new DeletedUser(1L, "one@example.com"), new DeletedUser(3L, "three@example.com")));
+
+        BatchDeleteResult result = userService.deleteAll(List.of(1L, 2L, 3L, 2L));
+
+        assertEquals(2, result.getDeleted());
+        assertEquals(List.of(2L), result.getMissingIds());
+        verify(usersCache).evict(1L);
+        verify(usersCache).evict(3L);
+        verify(emailMembershipFilter).remove("one@example.com");
+        verify(emailMembershipFilter).remove("three@example.com");
+        verify(userRepository, never()).delete(any(User.class));
+    }
+
+    @Test
+    void testDeleteAll_Empty_NothingDeleted() {
+        BatchDeleteResult result = userService.deleteAll(List.of());
+
+        assertEquals(0, result.getDeleted());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void testDeleteAll_NullOrTooManyIds_Rejected() {
+        assertThrows(InvalidUserIdsException.class, () -> userService.deleteAll(Arrays.asList(1L, null)));
+        assertThrows(InvalidUserIdsException.class, () -> userService.deleteAll(List.of(1L, 2L, 3L, 4L, 5L)));
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void testDeleteByBirthDateBetween_FromAfterTo_Rejected() {
+        assertThrows(InvalidBirthDateRangeException.class,
+                () -> userService.deleteByBirthDateBetween(new Date(978220800000L), new Date(946684800000L)));
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void testDeleteByBirthDateBetween() {
+        Date from = new Date(946684800000L);
+        Date to = new Date(978220800000L);
+        when(cacheManager.getCache(CacheConfig.USERS)).thenReturn(mock(Cache.class));
+        when(userRepository.bulkDeleteByBirthDateBetween(from, to, 2))
+                .thenReturn(List.of(new DeletedUser(1L, "one@example.com")));
+
+        BatchDeleteResult result = userService.deleteByBirthDateBetween(from, to);
+
+        assertEquals(1, result.getDeleted());
+        assertTrue(result.getMissingIds().isEmpty());
     }
 
     @Test
@@ -251,16 +469,64 @@ public class UserServiceTest {
         int size = 10;
         int page = 0;
 
-        List<User> userList = new ArrayList<>();
-        userList.add(new User());
-        userList.add(new User());
-        Page<User> expectedPage = new PageImpl<>(userList);
+        List<UserRow> userList = List.of(row(1L), row(2L));
+        Page<UserRow> expectedPage = new PageImpl<>(userList);
 
         when(userRepository.findByBirthDateBetween(from, to, PageRequest.of(page, size))).thenReturn(expectedPage);
 
-        Page<User> resultPage = userService.findByBirthDateBetween(from, to, size, page);
+        Page<UserRow> resultPage = userService.findByBirthDateBetween(from, to, size, page);
 
         assertEquals(expectedPage, resultPage);
         verify(userRepository, times(1)).findByBirthDateBetween(from, to, PageRequest.of(page, size));
     }
+
+    @Test
+    void testFindByBirthDateBetweenAfter_HasNext() {
+        Date from = new Date(1049222400000L); // 2003-04-04
+        Date to = new Date(1080758400000L); // 2004-04-04
+        UserCursor after = new UserCursor(from, 5L);
+
+        List<UserRow> userList = List.of(row(6L), row(7L), row(8L));
+        when(userRepository.findByBirthDateBetweenAfter(from, to, from, 5L, PageRequest.ofSize(3))).thenReturn(userList);
+
+        Slice<UserRow> result = userService.findByBirthDateBetweenAfter(from, to, after, 2);
+
+        assertTrue(result.hasNext());
+        assertEquals(userList.subList(0, 2), result.getContent());
+        verify(userRepository, never()).findByBirthDateBetween(any(Date.class), any(Date.class), any(PageRequest.class));
+    }
+
+    @Test
+    void testFindByBirthDateBetweenAfter_FirstPage() {
+        Date from = new Date(1049222400000L); // 2003-04-04
+        Date to = new Date(1080758400000L); // 2004-04-04
+
+        List<UserRow> userList = List.of(row(1L));
+        when(userRepository.findByBirthDateBetweenOrderByBirthDateAscIdAsc(from, to, PageRequest.ofSize(3))).thenReturn(userList);
+
+        Slice<UserRow> result = userService.findByBirthDateBetweenAfter(from, to, null, 2);
+
+        assertFalse(result.hasNext());
+        assertEquals(userList, result.getContent());
+    }
+
+    @Test
+    void testFindSliceByBirthDateBetween_Success() {
+        Date from = new Date(1049222400000L); // 2003-04-04
+        Date to = new Date(1080758400000L); // 2004-04-04
+        int size = 10;
+        int page = 0;
+
+        Slice<UserRow> expectedSlice = new SliceImpl<>(List.of(row(1L)), PageRequest.of(page, size), false);
+        when(userRepository.findSliceByBirthDateBetween(from, to, PageRequest.of(page, size))).thenReturn(expectedSlice);
+
+        Slice<UserRow> resultSlice = userService.findSliceByBirthDateBetween(from, to, size, page);
+
+        assertEquals(expectedSlice, resultSlice);
+        verify(userRepository, never()).countByBirthDateBetween(any(Date.class), any(Date.class));
+    }
+
+    private static UserRow row(Long id) {
+        return new UserRow(id, "user" + id + "@example.com", "John", "Doe", new Date(1049222400000L), null, null);
+    }
 }
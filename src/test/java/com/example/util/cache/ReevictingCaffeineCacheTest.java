@@ -0,0 +1,35 @@
+package com.example.util.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ReevictingCaffeineCacheTest {
+
+    private final ReevictingCaffeineCache cache =
+            new ReevictingCaffeineCache("users", Caffeine.newBuilder().build(), true, 50);
+
+    @Test
+    void testEvict_StaleValuePutBackAfterEviction_EvictedAgain() throws InterruptedException {
+        cache.put(1L, "v1");
+
+        cache.evict(1L);
+        // a read that loaded v1 before the write committed
+        cache.put(1L, "v1");
+        assertNotNull(cache.get(1L));
+
+        Thread.sleep(200);
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void testPut_AfterReeviction_Kept() throws InterruptedException {
+        cache.evict(1L);
+        Thread.sleep(200);
+
+        cache.put(1L, "v2");
+        assertNotNull(cache.get(1L));
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.util.datasource;
+
+import com.example.RequiresDocker;
+import com.example.config.ReadReplicaConfig;
+import com.example.config.SlowQueryLogConfig;
+import com.example.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two independent databases stand in for a primary and its replica, each with a user the other lacks, so a query
+ * shows which one served it. Goes through the whole chain: the JPA transaction manager, the slow-query wrapper
+ * and {@link ReadReplicaRoutingDataSource}.
+ */
+@RequiresDocker
+@Testcontainers
+@DataJpaTest(properties = {
+        "spring.jpa.open-in-view=false",
+        "user.datasource.replica.read-your-writes-ms=0"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ReadReplicaConfig.class, SlowQueryLogConfig.class, ReadReplicaRoutingTest.TestConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReadReplicaRoutingTest {
+
+    private static final String PRIMARY_EMAIL = "primary@example.com";
+
+    private static final String REPLICA_EMAIL = "replica@example.com";
+
+    @Container
+    static PostgreSQLContainer<?> primary = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Container
+    static PostgreSQLContainer<?> replica = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReadReplicas readReplicas;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @DynamicPropertySource
+    static void dataSources(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", primary::getJdbcUrl);
+        registry.add("spring.datasource.username", primary::getUsername);
+        registry.add("spring.datasource.password", primary::getPassword);
+        registry.add("user.datasource.replica.urls", replica::getJdbcUrl);
+        registry.add("user.datasource.replica.username", replica::getUsername);
+        registry.add("user.datasource.replica.password", replica::getPassword);
+    }
+
+    // the application only migrates the primary; a real replica gets its schema by replication
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure()
+                .dataSource(replica.getJdbcUrl(), replica.getUsername(), replica.getPassword())
+                .load()
+                .migrate();
+        insertUser(new JdbcTemplate(new DriverManagerDataSource(
+                replica.getJdbcUrl(), replica.getUsername(), replica.getPassword())), REPLICA_EMAIL);
+    }
+
+    @BeforeEach
+    void setUp() {
+        insertUser(new JdbcTemplate(readReplicas.getPrimary()), PRIMARY_EMAIL);
+        readReplicas.checkReplicas();
+    }
+
+    @Test
+    void testReadOnlyTransaction_ReadsFromReplica() {
+        assertTrue(exists(readOnly(), REPLICA_EMAIL));
+        assertFalse(exists(readOnly(), PRIMARY_EMAIL));
+    }
+
+    @Test
+    void testReadWriteTransaction_ReadsFromPrimary() {
+        assertTrue(exists(new TransactionTemplate(transactionManager), PRIMARY_EMAIL));
+    }
+
+    @Test
+    void testReadFromPrimary_ReadsFromPrimary() {
+        assertTrue(ReadReplicas.readFromPrimary(() -> exists(readOnly(), PRIMARY_EMAIL)));
+    }
+
+    @Test
+    void testReplicaDown_ReadsFromPrimary() {
+        replica.getDockerClient().pauseContainerCmd(replica.getContainerId()).exec();
+        try {
+            readReplicas.checkReplicas();
+
+            assertTrue(exists(readOnly(), PRIMARY_EMAIL));
+        } finally {
+            replica.getDockerClient().unpauseContainerCmd(replica.getContainerId()).exec();
+        }
+    }
+
+    private boolean exists(TransactionTemplate transaction, String email) {
+        return Boolean.TRUE.equals(transaction.execute(status -> userRepository.existsByEmail(email)));
+    }
+
+    private TransactionTemplate readOnly() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return readOnly;
+    }
+
+    private static void insertUser(JdbcTemplate jdbcTemplate, String email) {
+        jdbcTemplate.update("INSERT INTO service_user (id, email, first_name, last_name, birth_date) " +
+                "VALUES (nextval('service_user_seq'), ?, 'Test', 'User', DATE '1990-01-01') ON CONFLICT (email) DO NOTHING", email);
+    }
+
+    @TestConfiguration
+    static class TestConfig {
+
+        @Bean
+        AuditorAware<String> auditorProvider() {
+            return () -> Optional.of("test");
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
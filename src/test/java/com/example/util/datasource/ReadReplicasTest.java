@@ -0,0 +1,119 @@
+package com.example.util.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+
+class ReadReplicasTest {
+
+    private static final AuditorAware<String> ALICE = () -> Optional.of("alice");
+
+    private final Replica first = replica("replica-0", true);
+
+    private final Replica second = replica("replica-1", true);
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void selectForRead_RoundRobin_AlternatesReplicas() {
+        ReadReplicas readReplicas = readReplicas(List.of(first, second), Duration.ZERO);
+
+        assertSame(first, readReplicas.selectForRead());
+        assertSame(second, readReplicas.selectForRead());
+        assertSame(first, readReplicas.selectForRead());
+    }
+
+    @Test
+    void selectForRead_UnhealthyReplica_Skipped() {
+        Replica down = replica("replica-0", false);
+        ReadReplicas readReplicas = readReplicas(List.of(down, second), Duration.ZERO);
+
+        assertSame(second, readReplicas.selectForRead());
+        assertSame(second, readReplicas.selectForRead());
+    }
+
+    @Test
+    void selectForRead_NoHealthyReplica_Primary() {
+        ReadReplicas readReplicas = readReplicas(List.of(replica("replica-0", false)), Duration.ZERO);
+
+        assertNull(readReplicas.selectForRead());
+    }
+
+    @Test
+    void selectForRead_SameRequest_KeepsReplica() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        ReadReplicas readReplicas = readReplicas(List.of(first, second), Duration.ZERO);
+
+        assertSame(first, readReplicas.selectForRead());
+        assertSame(first, readReplicas.selectForRead());
+    }
+
+    @Test
+    void selectForRead_ReadFromPrimary_Primary() {
+        ReadReplicas readReplicas = readReplicas(List.of(first, second), Duration.ZERO);
+
+        assertNull(ReadReplicas.readFromPrimary(readReplicas::selectForRead));
+        assertSame(first, readReplicas.selectForRead());
+    }
+
+    @Test
+    void selectForRead_AfterCommittedWrite_Primary() {
+        ReadReplicas readReplicas = readReplicas(List.of(first, second), Duration.ofMinutes(1));
+
+        TransactionSynchronizationManager.initSynchronization();
+        readReplicas.trackWrite();
+        // nothing changes until the write commits
+        assertSame(first, readReplicas.selectForRead());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertNull(readReplicas.selectForRead());
+    }
+
+    @Test
+    void trackWrite_ReadOnlyTransaction_Ignored() {
+        ReadReplicas readReplicas = readReplicas(List.of(first), Duration.ofMinutes(1));
+
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        readReplicas.trackWrite();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertSame(first, readReplicas.selectForRead());
+    }
+
+    private static ReadReplicas readReplicas(List<Replica> replicas, Duration readYourWrites) {
+        return new ReadReplicas(mock(HikariDataSource.class), replicas, ReplicaSelection.ROUND_ROBIN, readYourWrites, ALICE);
+    }
+
+    private static Replica replica(String name, boolean healthy) {
+        Replica replica = new Replica(name, mock(HikariDataSource.class)) {
+            @Override
+            boolean probe() {
+                return healthy;
+            }
+        };
+        replica.checkHealth();
+        return replica;
+    }
+}
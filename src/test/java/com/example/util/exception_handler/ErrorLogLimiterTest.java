@@ -0,0 +1,44 @@
+package com.example.util.exception_handler;
+
+import com.example.exception.ClientException;
+import com.example.exception.user.UserWithThisIdNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ErrorLogLimiterTest {
+
+    private final AtomicReference<String> caller = new AtomicReference<>("alice");
+
+    private final ErrorLogLimiter limiter = new ErrorLogLimiter(() -> Optional.of(caller.get()), 2, 60_000);
+
+    @Test
+    void testShouldLog_LimitedPerTypeAndCaller() {
+        assertTrue(limiter.shouldLog(new UserWithThisIdNotFoundException(1L)));
+        assertTrue(limiter.shouldLog(new UserWithThisIdNotFoundException(2L)));
+        assertFalse(limiter.shouldLog(new UserWithThisIdNotFoundException(3L)));
+
+        // another type, and another caller, have their own limits
+        assertTrue(limiter.shouldLog(new ClientException("bad")));
+        caller.set("bob");
+        assertTrue(limiter.shouldLog(new UserWithThisIdNotFoundException(4L)));
+    }
+
+    @Test
+    void testShouldLog_NewInterval() throws InterruptedException {
+        ErrorLogLimiter shortInterval = new ErrorLogLimiter(() -> Optional.of("alice"), 1, 50);
+
+        assertTrue(shortInterval.shouldLog(new ClientException("bad")));
+        assertFalse(shortInterval.shouldLog(new ClientException("bad")));
+        Thread.sleep(100);
+        assertTrue(shortInterval.shouldLog(new ClientException("bad")));
+    }
+
+    @Test
+    void testClientExceptionsAreStackless() {
+        assertEquals(0, new UserWithThisIdNotFoundException(1L).getStackTrace().length);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.util.exception_handler;
+
+import com.example.exception.imports.ImportQueueFullException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class GlobalExceptionHandlerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new EchoController())
+                .setControllerAdvice(new GlobalExceptionHandler(meterRegistry,
+                        new ErrorLogLimiter(() -> Optional.of("alice"), 1, 60_000)))
+                .build();
+    }
+
+    @Test
+    void testMalformedBody_BadRequest() throws Exception {
+        mockMvc.perform(post("/echo").contentType(MediaType.APPLICATION_JSON).content("{\"email\":"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0]").value("Malformed request body"));
+
+        assertEquals(1, meterRegistry.counter("user.api.errors",
+                "exception", "HttpMessageNotReadableException", "status", "400").count());
+    }
+
+    @Test
+    void testUnsupportedContentType_BadRequest() throws Exception {
+        mockMvc.perform(post("/echo").contentType(MediaType.APPLICATION_XML).content("<user/>"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testMissingAndMistypedParameters_BadRequest() throws Exception {
+        mockMvc.perform(get("/echo"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/echo").param("page", "first"))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(0, meterRegistry.find("user.api.errors").tag("status", "500").counters().size());
+    }
+
+    @Test
+    void testImportQueueFull_ServiceUnavailable() throws Exception {
+        mockMvc.perform(post("/import"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "60"));
+    }
+
+    @RestController
+    static class EchoController {
+
+        @PostMapping("/import")
+        void importUsers() {
+            throw new ImportQueueFullException(2);
+        }
+
+        @PostMapping("/echo")
+        Map<String, Object> echo(@RequestBody Map<String, Object> body) {
+            return body;
+        }
+
+        @GetMapping("/echo")
+        int page(@RequestParam int page) {
+            return page;
+        }
+    }
+}
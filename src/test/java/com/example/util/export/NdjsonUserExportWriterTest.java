@@ -0,0 +1,38 @@
+package com.example.util.export;
+
+import com.example.dto.user.UserDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NdjsonUserExportWriterTest {
+
+    @Test
+    void testWrite_FlushesOnceOnClose() throws Exception {
+        FlushCountingStream out = new FlushCountingStream();
+
+        try (NdjsonUserExportWriter writer = new NdjsonUserExportWriter(new ObjectMapper(), out)) {
+            for (long id = 1; id <= 3; id++) {
+                writer.write(new UserDTO().setId(id).setEmail("user" + id + "@example.com"));
+            }
+            assertEquals(0, out.flushes);
+        }
+
+        assertEquals(1, out.flushes);
+        assertEquals(3, out.toString(StandardCharsets.UTF_8).lines().count());
+    }
+
+    private static class FlushCountingStream extends ByteArrayOutputStream {
+
+        private int flushes;
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+    }
+}
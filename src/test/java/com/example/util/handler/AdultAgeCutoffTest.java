@@ -0,0 +1,84 @@
+package com.example.util.handler;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.ZoneId;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdultAgeCutoffTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Berlin");
+
+    @Test
+    void testIsOldEnough_MatchesPeriod() {
+        // leap days on both sides, and a today that is itself a leap day
+        for (String today : new String[]{"2024-02-29", "2024-02-28", "2024-03-01", "2023-02-28", "2023-03-01", "2024-12-31"}) {
+            LocalDate todayDate = LocalDate.parse(today);
+            AdultAgeCutoff cutoff = new AdultAgeCutoff(18, fixedAt(todayDate.atTime(13, 0)));
+            for (LocalDate birth = todayDate.minusYears(18).minusDays(3); birth.isBefore(todayDate.minusYears(18).plusDays(3)); birth = birth.plusDays(1)) {
+                boolean expected = Period.between(birth, todayDate).getYears() >= 18;
+                assertEquals(expected, cutoff.isOldEnough(startOf(birth)), today + " / " + birth);
+            }
+        }
+    }
+
+    @Test
+    void testIsOldEnough_RefreshedAfterMidnight() {
+        MutableClock clock = new MutableClock(LocalDate.parse("2024-05-09").atTime(23, 59).atZone(ZONE).toInstant());
+        AdultAgeCutoff cutoff = new AdultAgeCutoff(18, clock);
+        Date turns18Tomorrow = startOf(LocalDate.parse("2006-05-10"));
+
+        assertFalse(cutoff.isOldEnough(turns18Tomorrow));
+
+        clock.instant = clock.instant.plusSeconds(120);
+        assertTrue(cutoff.isOldEnough(turns18Tomorrow));
+    }
+
+    @Test
+    void testIsOldEnough_LateInTheDay() {
+        AdultAgeCutoff cutoff = new AdultAgeCutoff(18, fixedAt(LocalDate.parse("2024-05-10").atTime(0, 0)));
+
+        // the last instant of the cutoff day still counts as that day
+        assertTrue(cutoff.isOldEnough(new Date(startOf(LocalDate.parse("2006-05-11")).getTime() - 1)));
+        assertFalse(cutoff.isOldEnough(startOf(LocalDate.parse("2006-05-11"))));
+    }
+
+    private static Clock fixedAt(LocalDateTime time) {
+        return Clock.fixed(time.atZone(ZONE).toInstant(), ZONE);
+    }
+
+    private static Date startOf(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZONE).toInstant());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZONE;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
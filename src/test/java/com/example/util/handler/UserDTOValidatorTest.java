@@ -0,0 +1,128 @@
+package com.example.util.handler;
+
+import com.example.dto.user.UserDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigUtils;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserDTOValidatorTest {
+
+    private final Clock clock = Clock.systemDefaultZone();
+
+    private final AdultAgeCutoff cutoff = new AdultAgeCutoff(18, clock);
+
+    private final LocalValidatorFactoryBean beanValidator = beanValidator(cutoff);
+
+    private final UserDTOValidator userDTOValidator = new UserDTOValidator(beanValidator, cutoff, clock);
+
+    @AfterEach
+    void tearDown() {
+        LocaleContextHolder.resetLocaleContext();
+        beanValidator.close();
+    }
+
+    @Test
+    void testValidate_SameErrorsAsBeanValidation() {
+        List<UnaryOperator<UserDTO>> cases = List.of(
+                user -> user,
+                user -> new UserDTO(),
+                user -> user.setEmail("not-an-email"),
+                user -> user.setEmail("   "),
+                user -> user.setEmail(""),
+                user -> user.setEmail("a@b"),
+                user -> user.setEmail("john..doe@example.com"),
+                user -> user.setFirstName("Jo"),
+                user -> user.setFirstName("J".repeat(31)),
+                user -> user.setFirstName(" "),
+                user -> user.setLastName(null),
+                user -> user.setBirthDate(null),
+                user -> user.setBirthDate(daysAgo(-1)),
+                user -> user.setBirthDate(yearsAgo(18, 1)),
+                user -> user.setBirthDate(yearsAgo(18, 0)),
+                user -> user.setBirthDate(yearsAgo(18, -1)),
+                user -> user.setPhoneNumber("12345"),
+                user -> user.setPhoneNumber("１２３４５６７８９０"),
+                user -> user.setPhoneNumber("1234567890"));
+
+        for (UnaryOperator<UserDTO> change : cases) {
+            UserDTO user = change.apply(validUser());
+            assertEquals(beanValidation(user), userDTOValidator.validate(user).stream().sorted().toList(),
+                    () -> "for " + user.getEmail() + " / " + user.getFirstName() + " / " + user.getBirthDate() + " / " + user.getPhoneNumber());
+        }
+    }
+
+    @Test
+    void testValidate_InterpolatedMessagesFollowLocale() {
+        UserDTO user = validUser().setBirthDate(daysAgo(-1)).setPhoneNumber("12345");
+
+        LocaleContextHolder.setLocale(Locale.GERMAN);
+        assertEquals(beanValidation(user), userDTOValidator.validate(user).stream().sorted().toList());
+        LocaleContextHolder.setLocale(Locale.ENGLISH);
+        assertEquals(beanValidation(user), userDTOValidator.validate(user).stream().sorted().toList());
+    }
+
+    @Test
+    void testValidate_SpringErrors() {
+        UserDTO user = validUser().setFirstName("Jo");
+        BeanPropertyBindingResult errors = new BeanPropertyBindingResult(user, "userDTO");
+
+        userDTOValidator.validate(user, errors);
+
+        FieldError error = errors.getFieldError();
+        assertNotNull(error);
+        assertEquals("firstName", error.getField());
+        assertEquals("Size", error.getCode());
+        assertEquals("Invalid first name. Must be of 3 - 30 characters", error.getDefaultMessage());
+    }
+
+    private List<String> beanValidation(UserDTO user) {
+        return beanValidator.validate(user).stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .toList();
+    }
+
+    private static UserDTO validUser() {
+        return new UserDTO()
+                .setEmail("john@example.com")
+                .setFirstName("John")
+                .setLastName("Doe")
+                .setBirthDate(yearsAgo(30, 0))
+                .setAddress("123 Main St");
+    }
+
+    private static Date yearsAgo(int years, int daysEarlier) {
+        return Date.from(LocalDate.now().minusYears(years).minusDays(daysEarlier).atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static Date daysAgo(int days) {
+        return yearsAgo(0, days);
+    }
+
+    // Bean Validation as the application sets it up, with AdultAgeValidator autowired
+    private static LocalValidatorFactoryBean beanValidator(AdultAgeCutoff cutoff) {
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.registerBean(AdultAgeCutoff.class, () -> cutoff);
+        AnnotationConfigUtils.registerAnnotationConfigProcessors(context);
+        context.refresh();
+        LocalValidatorFactoryBean validator = new LocalValidatorFactoryBean();
+        validator.setApplicationContext(context);
+        validator.afterPropertiesSet();
+        return validator;
+    }
+}
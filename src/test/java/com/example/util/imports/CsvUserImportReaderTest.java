@@ -0,0 +1,54 @@
+package com.example.util.imports;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvUserImportReaderTest {
+
+    @Test
+    void testRead_QuotedFieldsAndExportHeader() throws Exception {
+        String csv = "id,email,first_name,last_name,birth_date,address,phone_number\r\n" +
+                "7,john@example.com,John,Doe,1990-01-01,\"1 Main St, \"\"Old\"\"\nTown\",\r\n" +
+                "\r\n" +
+                "8,jane@example.com,Jane,Doe,01/01/1990,,1234567890";
+
+        try (CsvUserImportReader reader = new CsvUserImportReader(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), 1024)) {
+            ImportRecord first = reader.read();
+            assertEquals(0, first.index());
+            assertNull(first.error());
+            assertNull(first.user().getId());
+            assertEquals("john@example.com", first.user().getEmail());
+            assertEquals("1 Main St, \"Old\"\nTown", first.user().getAddress());
+            assertNull(first.user().getPhoneNumber());
+            assertEquals(Instant.parse("1990-01-01T00:00:00Z"), first.user().getBirthDate().toInstant());
+
+            ImportRecord second = reader.read();
+            assertEquals(1, second.index());
+            assertNull(second.user());
+            assertEquals("birthDate: invalid date 01/01/1990, expected yyyy-MM-dd", second.error());
+
+            assertNull(reader.read());
+        }
+    }
+
+    @Test
+    void testRead_UnterminatedQuote_RejectedWithoutReadingTheRest() throws Exception {
+        String csv = "email,first_name,last_name,birth_date\n" +
+                "john@example.com,\"John,Doe,1990-01-01\n" +
+                "x".repeat(200) + "\n";
+
+        try (CsvUserImportReader reader = new CsvUserImportReader(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), 64)) {
+            ImportRecord record = reader.read();
+            assertEquals(0, record.index());
+            assertNull(record.user());
+            assertEquals("Record longer than 64 characters", record.error());
+
+            assertNull(reader.read());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.util.imports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NdjsonUserImportReaderTest {
+
+    @Test
+    void testRead_LineTooLong_RejectedAndNextLineRead() throws Exception {
+        String ndjson = "{\"email\":\"" + "x".repeat(200) + "\"}\r\n" +
+                "\r\n" +
+                "{\"email\":\"john@example.com\",\"firstName\":\"John\"}\r\n";
+
+        try (NdjsonUserImportReader reader = new NdjsonUserImportReader(new ObjectMapper(),
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), 64)) {
+            ImportRecord first = reader.read();
+            assertEquals(0, first.index());
+            assertNull(first.user());
+            assertEquals("Record longer than 64 characters", first.error());
+
+            ImportRecord second = reader.read();
+            assertEquals(1, second.index());
+            assertNull(second.error());
+            assertEquals("john@example.com", second.user().getEmail());
+
+            assertNull(reader.read());
+        }
+    }
+}
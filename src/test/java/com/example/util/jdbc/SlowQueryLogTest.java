@@ -0,0 +1,55 @@
+package com.example.util.jdbc;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SlowQueryLogTest {
+
+    @Test
+    void testWrappedStatementsDelegate() throws SQLException {
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(connection.prepareStatement("SELECT 1 WHERE ? = ?")).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+
+        Connection wrapped = new SlowQueryLog(0, 0).wrap(connection);
+        PreparedStatement wrappedStatement = wrapped.prepareStatement("SELECT 1 WHERE ? = ?");
+        wrappedStatement.setLong(1, 1L);
+        wrappedStatement.setString(2, "a");
+
+        assertNotSame(statement, wrappedStatement);
+        assertSame(resultSet, wrappedStatement.executeQuery());
+        verify(statement).setLong(1, 1L);
+        verify(statement).setString(2, "a");
+    }
+
+    @Test
+    void testDriverExceptionsPassThrough() throws SQLException {
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement("DELETE FROM service_user")).thenReturn(statement);
+        when(statement.executeUpdate()).thenThrow(new SQLException("boom"));
+
+        PreparedStatement wrapped = new SlowQueryLog(0, 0).wrap(connection).prepareStatement("DELETE FROM service_user");
+
+        assertEquals("boom", assertThrows(SQLException.class, wrapped::executeUpdate).getMessage());
+    }
+
+    @Test
+    void testLogsOnlyAboveThresholdWithoutSampling() {
+        SlowQueryLog slowQueryLog = new SlowQueryLog(200, 0);
+
+        assertFalse(slowQueryLog.shouldLog(TimeUnit.MILLISECONDS.toNanos(199)));
+        assertTrue(slowQueryLog.shouldLog(TimeUnit.MILLISECONDS.toNanos(200)));
+        assertTrue(new SlowQueryLog(200, 1).shouldLog(0));
+    }
+}
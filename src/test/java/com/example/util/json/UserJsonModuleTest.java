@@ -0,0 +1,129 @@
+package com.example.util.json;
+
+import com.example.dto.exception.ErrorResponseDTO;
+import com.example.dto.response.ResponseListDTO;
+import com.example.dto.user.UserDTO;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserJsonModuleTest {
+
+    private static final JavaType SEARCH_PAGE = TypeFactory.defaultInstance().constructParametricType(
+            ResponseListDTO.class, TypeFactory.defaultInstance().constructCollectionType(List.class, UserDTO.class));
+
+    // configured like the ObjectMapper Spring Boot builds
+    private final ObjectMapper stock = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final ObjectMapper handWritten = stock.copy().registerModule(new UserJsonModule());
+
+    @Test
+    void testSearchPage_ByteIdentical() throws Exception {
+        ResponseListDTO<List<UserDTO>> page = ResponseListDTO.<List<UserDTO>>builder()
+                .currentPage(2L)
+                .size(3)
+                .totalElements(12L)
+                .totalPages(4L)
+                .data(Arrays.asList(fullUser(), new UserDTO().setId(2L).setEmail("Zoë \"Q\" <z@example.com>"), null))
+                .build();
+
+        assertArrayEquals(stock.writerFor(SEARCH_PAGE).writeValueAsBytes(page),
+                handWritten.writerFor(SEARCH_PAGE).writeValueAsBytes(page));
+        assertArrayEquals(stock.writeValueAsBytes(page), handWritten.writeValueAsBytes(page));
+    }
+
+    @Test
+    void testSliceAndCursorPages_ByteIdentical() throws Exception {
+        ResponseListDTO<List<UserDTO>> slice = ResponseListDTO.<List<UserDTO>>builder()
+                .currentPage(0L)
+                .size(1)
+                .hasNext(true)
+                .data(List.of(fullUser()))
+                .build();
+        ResponseListDTO<List<UserDTO>> cursorPage = ResponseListDTO.<List<UserDTO>>builder()
+                .size(1)
+                .hasNext(false)
+                .nextCursor("MTAwOjc")
+                .data(List.of())
+                .build();
+
+        assertEquals(stock.writerFor(SEARCH_PAGE).writeValueAsString(slice),
+                handWritten.writerFor(SEARCH_PAGE).writeValueAsString(slice));
+        assertEquals(stock.writerFor(SEARCH_PAGE).writeValueAsString(cursorPage),
+                handWritten.writerFor(SEARCH_PAGE).writeValueAsString(cursorPage));
+        assertEquals(stock.writeValueAsString(new ResponseListDTO<>()), handWritten.writeValueAsString(new ResponseListDTO<>()));
+    }
+
+    @Test
+    void testDates_ByteIdentical() throws Exception {
+        UserDTO utilDate = fullUser().setBirthDate(new Date(1049414400123L));
+        UserDTO sqlDate = fullUser().setBirthDate(new java.sql.Date(1049414400000L));
+        ObjectMapper timestamps = Jackson2ObjectMapperBuilder.json().build();
+        ObjectMapper timestampsHandWritten = timestamps.copy().registerModule(new UserJsonModule());
+
+        assertEquals(stock.writeValueAsString(utilDate), handWritten.writeValueAsString(utilDate));
+        assertEquals(stock.writeValueAsString(sqlDate), handWritten.writeValueAsString(sqlDate));
+        assertEquals(timestamps.writeValueAsString(utilDate), timestampsHandWritten.writeValueAsString(utilDate));
+    }
+
+    @Test
+    void testErrorResponse_ByteIdentical() throws Exception {
+        for (ErrorResponseDTO error : List.of(new ErrorResponseDTO(List.of("User with id 7 not found")),
+                new ErrorResponseDTO(Arrays.asList("email: Invalid email. Empty email", null, "tab\there")),
+                new ErrorResponseDTO(List.of()),
+                new ErrorResponseDTO(null))) {
+            assertArrayEquals(stock.writeValueAsBytes(error), handWritten.writeValueAsBytes(error));
+        }
+        assertInstanceOf(ErrorResponseDTOSerializer.class,
+                handWritten.getSerializerProviderInstance().findValueSerializer(ErrorResponseDTO.class));
+    }
+
+    @Test
+    void testActiveView_FallsBackToBeanSerializer() throws Exception {
+        UserDTO user = fullUser();
+
+        assertEquals(stock.writerWithView(UserDTO.Input.class).writeValueAsString(user),
+                handWritten.writerWithView(UserDTO.Input.class).writeValueAsString(user));
+    }
+
+    @Test
+    void testHandWrittenSerializersInstalled() throws Exception {
+        assertInstanceOf(UserDTOSerializer.class,
+                handWritten.getSerializerProviderInstance().findValueSerializer(UserDTO.class));
+        assertInstanceOf(ResponseListDTOSerializer.class,
+                handWritten.getSerializerProviderInstance().findValueSerializer(SEARCH_PAGE));
+    }
+
+    @Test
+    void testOtherPropertyNames_KeepBeanSerializer() throws Exception {
+        ObjectMapper snakeCase = stock.copy()
+                .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                .registerModule(new UserJsonModule());
+
+        assertFalse(UserDTOSerializer.class.isInstance(snakeCase.getSerializerProviderInstance().findValueSerializer(UserDTO.class)));
+        assertTrue(snakeCase.writeValueAsString(fullUser()).contains("\"first_name\":\"John\""));
+    }
+
+    private static UserDTO fullUser() {
+        return new UserDTO()
+                .setId(1L)
+                .setEmail("john@example.com")
+                .setFirstName("John")
+                .setLastName("Doe")
+                .setBirthDate(new java.sql.Date(1049414400000L))
+                .setAddress("123 Main St")
+                .setPhoneNumber("1234567890");
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.util.metrics;
+
+import com.example.exception.user.UserWithThisIdNotFoundException;
+import com.example.service.user.IUserService;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StageTimingAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private IUserService userService;
+
+    private IUserService timedUserService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userService = mock(IUserService.class);
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(userService);
+        proxyFactory.addAspect(new StageTimingAspect(meterRegistry));
+        timedUserService = proxyFactory.getProxy();
+    }
+
+    @Test
+    void testTimesServiceCallsByOperationAndOutcome() {
+        timedUserService.delete(1L);
+        when(userService.getById(2L)).thenThrow(new UserWithThisIdNotFoundException(2L));
+        assertThrows(UserWithThisIdNotFoundException.class, () -> timedUserService.getById(2L));
+
+        Timer success = meterRegistry.find("user.service")
+                .tags("operation", "delete", "outcome", "success", "exception", "none").timer();
+        Timer error = meterRegistry.find("user.service")
+                .tags("operation", "getById", "outcome", "error", "exception", "UserWithThisIdNotFoundException").timer();
+        assertNotNull(success);
+        assertNotNull(error);
+        assertEquals(1, success.count());
+        assertEquals(1, error.count());
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.util.security;
+
+import com.example.config.SecurityConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationProvider;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingJwtAuthenticationProviderTest {
+
+    @Mock
+    private JwtDecoder jwtDecoder;
+
+    private CachingJwtAuthenticationProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        JwtAuthenticationProvider jwtAuthenticationProvider = new JwtAuthenticationProvider(jwtDecoder);
+        jwtAuthenticationProvider.setJwtAuthenticationConverter(new SecurityConfig().jwtAuthenticationConverter());
+        provider = new CachingJwtAuthenticationProvider(jwtAuthenticationProvider, 100);
+    }
+
+    @Test
+    void testAuthenticate_RepeatTokenDecodedOnce() {
+        when(jwtDecoder.decode("token")).thenReturn(jwt(Instant.now().plusSeconds(300)));
+
+        Authentication first = provider.authenticate(bearer("token", "first"));
+        Authentication second = provider.authenticate(bearer("token", "second"));
+
+        verify(jwtDecoder, times(1)).decode("token");
+        assertEquals("john", second.getName());
+        assertEquals(List.of("SCOPE_profile", "ROLE_ADMIN"),
+                second.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        assertEquals("first", first.getDetails());
+        assertEquals("second", second.getDetails());
+    }
+
+    @Test
+    void testAuthenticate_ExpiredTokenNotCached() {
+        when(jwtDecoder.decode("token")).thenReturn(jwt(Instant.now().minusSeconds(10)));
+
+        provider.authenticate(bearer("token", null));
+        provider.authenticate(bearer("token", null));
+
+        verify(jwtDecoder, times(2)).decode("token");
+    }
+
+    private static BearerTokenAuthenticationToken bearer(String token, Object details) {
+        BearerTokenAuthenticationToken bearer = new BearerTokenAuthenticationToken(token);
+        bearer.setDetails(details);
+        return bearer;
+    }
+
+    private static Jwt jwt(Instant expiresAt) {
+        return Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .claim("preferred_username", "john")
+                .claim("scope", "profile")
+                .claim("realm_access", Map.of("roles", List.of("ROLE_ADMIN", "offline_access")))
+                .issuedAt(expiresAt.minusSeconds(600))
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
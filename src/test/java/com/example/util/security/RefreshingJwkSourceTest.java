@@ -0,0 +1,110 @@
+package com.example.util.security;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+import com.nimbusds.jose.util.Resource;
+import com.nimbusds.jose.util.ResourceRetriever;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshingJwkSourceTest {
+
+    private static final JWKSelector ANY_KEY = new JWKSelector(new JWKMatcher.Builder().build());
+
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    private final CountDownLatch endpointAnswers = new CountDownLatch(1);
+
+    private volatile boolean endpointDown;
+
+    private RefreshingJwkSource jwkSource;
+
+    @AfterEach
+    void tearDown() {
+        jwkSource.close();
+    }
+
+    @Test
+    void testGet_ConcurrentFirstLookups_ShareOneFetch() throws Exception {
+        jwkSource = new RefreshingJwkSource(new URL("http://keycloak/certs"), slowEndpoint(), 30000);
+        ExecutorService requests = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> keys = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                keys.add(requests.submit(() -> jwkSource.get(ANY_KEY, null).size()));
+            }
+            Thread.sleep(100);
+            endpointAnswers.countDown();
+
+            for (Future<Integer> key : keys) {
+                assertEquals(1, key.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, fetches.get());
+        } finally {
+            requests.shutdownNow();
+        }
+    }
+
+    @Test
+    void testGet_FirstFetchFails_NextLookupRetries() throws Exception {
+        endpointAnswers.countDown();
+        endpointDown = true;
+        jwkSource = new RefreshingJwkSource(new URL("http://keycloak/certs"), slowEndpoint(), 30000);
+
+        assertThrows(KeySourceException.class, () -> jwkSource.get(ANY_KEY, null));
+
+        endpointDown = false;
+        assertEquals(1, jwkSource.get(ANY_KEY, null).size());
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    void testGet_EndpointNeverAnswers_TimesOut() throws Exception {
+        // accepts the connection and never writes a byte
+        try (ServerSocket silentServer = new ServerSocket(0)) {
+            jwkSource = new RefreshingJwkSource(new URL("http://localhost:" + silentServer.getLocalPort() + "/certs"),
+                    new DefaultResourceRetriever(200, 200), 30000);
+
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+                assertThrows(KeySourceException.class, () -> jwkSource.get(ANY_KEY, null));
+                // the refresh thread is free again for the next attempt
+                assertThrows(KeySourceException.class, () -> jwkSource.get(ANY_KEY, null));
+            });
+        }
+    }
+
+    private ResourceRetriever slowEndpoint() throws Exception {
+        String jwkSet = new JWKSet(new RSAKeyGenerator(2048).keyID("key-1").generate().toPublicJWK()).toString();
+        return url -> {
+            fetches.incrementAndGet();
+            try {
+                endpointAnswers.await();
+            } catch (InterruptedException ex) {
+                throw new IOException(ex);
+            }
+            if (endpointDown) {
+                throw new IOException("Connection refused");
+            }
+            return new Resource(jwkSet, "application/json");
+        };
+    }
+}